@@ -0,0 +1,55 @@
+package com.habds.lcl.apt;
+
+import com.habds.lcl.core.annotation.ClassLink;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import java.util.Set;
+
+/**
+ * Annotation processor for DTOs marked with {@link ClassLink} annotation.
+ * <p>
+ * Verifies every {@link com.habds.lcl.core.annotation.Link} path against the Entity class and reports broken
+ * paths as compilation errors. For each DTO it also generates plain-Java
+ * {@link com.habds.lcl.core.processor.EntityToDtoMapper} (and {@link com.habds.lcl.core.processor.DtoToEntityMerger}
+ * when possible) that {@link com.habds.lcl.core.processor.impl.SimpleProcessor} will use instead of runtime mappings.
+ * DTOs having links that cannot be expressed through public accessors are left to the runtime mappings,
+ * the reason is reported as a note.
+ * <p>
+ * Supported options:
+ * <ul>
+ * <li>{@code lcl.verifyLinks} - {@code true} by default, set to {@code false} to report broken paths as notes
+ * (for instance when custom {@link com.habds.lcl.core.processor.LinkProcessor} with its own path syntax is used)</li>
+ * </ul>
+ *
+ * @version 1
+ * @since 10/18/26 4:08 PM
+ */
+@SupportedAnnotationTypes("com.habds.lcl.core.annotation.ClassLink")
+@SupportedOptions(ClassLinkAnnotationProcessor.VERIFY_LINKS_OPTION)
+public class ClassLinkAnnotationProcessor extends AbstractProcessor {
+
+    public static final String VERIFY_LINKS_OPTION = "lcl.verifyLinks";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        boolean verifyLinks = !"false".equalsIgnoreCase(processingEnv.getOptions().get(VERIFY_LINKS_OPTION));
+        for (Element element : roundEnv.getElementsAnnotatedWith(ClassLink.class)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                new MapperGenerator(processingEnv, (TypeElement) element, verifyLinks).generate();
+            }
+        }
+        return false;
+    }
+}
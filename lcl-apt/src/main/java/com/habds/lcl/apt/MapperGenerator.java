@@ -0,0 +1,744 @@
+package com.habds.lcl.apt;
+
+import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.annotation.Contains;
+import com.habds.lcl.core.annotation.Ignored;
+import com.habds.lcl.core.annotation.Link;
+import com.habds.lcl.core.processor.DtoToEntityMerger;
+import com.habds.lcl.core.processor.EntityToDtoMapper;
+import com.habds.lcl.core.processor.Processor;
+import com.habds.lcl.core.processor.impl.SimpleConverter;
+
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Generates {@link EntityToDtoMapper} and {@link DtoToEntityMerger} source code for a single DTO class.
+ * <p>
+ * Generated code follows the rules of {@link com.habds.lcl.core.processor.impl.SimpleLinkProcessor}
+ * (collections, enum conversions and nested DTOs included), but reads and writes properties through public
+ * accessors instead of fields. Links which can't be expressed that way leave the DTO to the runtime mappings.
+ *
+ * @version 1
+ * @since 10/18/26 4:08 PM
+ */
+class MapperGenerator {
+
+    private static final String PROCESSOR = Processor.class.getName();
+    private static final String CONVERTER = SimpleConverter.class.getName();
+    private static final String ENTITY_ANNOTATION = "javax.persistence.Entity";
+    private static final String ID_ANNOTATION = "javax.persistence.Id";
+
+    private final Types types;
+    private final Elements elements;
+    private final Messager messager;
+    private final ProcessingEnvironment env;
+    private final TypeElement dto;
+    private final boolean verifyLinks;
+    private final String packageName;
+    private final String generatedName;
+
+    private final List<Code> helpers = new ArrayList<>();
+    private int variables;
+
+    MapperGenerator(ProcessingEnvironment env, TypeElement dto, boolean verifyLinks) {
+        this.env = env;
+        this.types = env.getTypeUtils();
+        this.elements = env.getElementUtils();
+        this.messager = env.getMessager();
+        this.dto = dto;
+        this.verifyLinks = verifyLinks;
+        this.packageName = elements.getPackageOf(dto).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(dto).toString();
+        this.generatedName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1)
+            .replace('$', '_') + EntityToDtoMapper.GENERATED_CLASS_SUFFIX;
+    }
+
+    /**
+     * Verify DTO's links and write generated source, if at least one of mapper or merger can be generated
+     */
+    void generate() {
+        TypeMirror entity = classValue(dto, ClassLink.class);
+        if (entity == null || entity.getKind() != TypeKind.DECLARED) {
+            return;
+        }
+
+        String mapperSkipped = checkTypes(entity);
+        String mergerSkipped = mapperSkipped;
+        if (mapperSkipped == null) {
+            mapperSkipped = checkConstructor();
+        }
+
+        Code mapper = new Code(2);
+        Code merger = new Code(2);
+        boolean broken = false;
+        for (VariableElement field : linkedFields()) {
+            String path = toDotPath(field);
+            try {
+                readField(mapper, entity, field, path);
+            } catch (BrokenLinkException e) {
+                broken = true;
+                messager.printMessage(verifyLinks ? Diagnostic.Kind.ERROR : Diagnostic.Kind.NOTE,
+                    e.getMessage() + " (link \"" + path + "\")", field);
+            } catch (UnsupportedMappingException e) {
+                mapperSkipped = mapperSkipped == null ? field.getSimpleName() + ": " + e.getMessage() : mapperSkipped;
+            }
+            try {
+                writeField(merger, entity, field, path);
+            } catch (BrokenLinkException | UnsupportedMappingException e) {
+                mergerSkipped = mergerSkipped == null ? field.getSimpleName() + ": " + e.getMessage() : mergerSkipped;
+            }
+        }
+
+        if (broken) {
+            return;
+        }
+        if (mapperSkipped != null || mergerSkipped != null) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Runtime link mappings will be used for " + dto
+                + (mapperSkipped == null ? "" : ", mapper isn't generated: " + mapperSkipped)
+                + (mergerSkipped == null ? "" : ", merger isn't generated: " + mergerSkipped), dto);
+        }
+        if (mapperSkipped == null || mergerSkipped == null) {
+            write(entity, mapperSkipped == null ? mapper : null, mergerSkipped == null ? merger : null);
+        }
+    }
+
+    private void write(TypeMirror entity, Code mapper, Code merger) {
+        String entityName = typeName(entity);
+        String dtoName = typeName(dto.asType());
+        List<String> interfaces = new ArrayList<>();
+        if (mapper != null) {
+            interfaces.add(EntityToDtoMapper.class.getName() + "<" + entityName + ", " + dtoName + ">");
+        }
+        if (merger != null) {
+            interfaces.add(DtoToEntityMerger.class.getName() + "<" + entityName + ", " + dtoName + ">");
+        }
+
+        Code source = new Code(0);
+        if (!packageName.isEmpty()) {
+            source.line("package " + packageName + ";");
+            source.line("");
+        }
+        source.line("/**");
+        source.line(" * Generated by " + ClassLinkAnnotationProcessor.class.getName() + " for {@link " + dtoName
+            + "}, do not edit");
+        source.line(" */");
+        source.line("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        source.open("public final class " + generatedName + " implements " + String.join(", ", interfaces) + " {");
+        if (mapper != null) {
+            source.line("");
+            source.line("@Override");
+            source.open("public " + dtoName + " map(" + entityName + " entity, " + PROCESSOR + " processor) {");
+            source.line(dtoName + " dto = new " + dtoName + "();");
+            source.append(mapper);
+            source.line("return dto;");
+            source.close("}");
+            helpers.forEach(helper -> {
+                source.line("");
+                source.append(helper);
+            });
+        }
+        if (merger != null) {
+            source.line("");
+            source.line("@Override");
+            source.open("public " + entityName + " merge(" + entityName + " entity, " + dtoName + " dto, "
+                + PROCESSOR + " processor) {");
+            source.append(merger);
+            source.line("return entity;");
+            source.close("}");
+        }
+        source.close("}");
+
+        String qualifiedName = packageName.isEmpty() ? generatedName : packageName + "." + generatedName;
+        try (Writer writer = env.getFiler().createSourceFile(qualifiedName, dto).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Cannot write " + qualifiedName + ": " + e.getMessage(), dto);
+        }
+    }
+
+    // Entity -> DTO
+
+    private void readField(Code code, TypeMirror entity, VariableElement field, String path)
+        throws BrokenLinkException, UnsupportedMappingException {
+        TypeMirror dtoType = field.asType();
+        String writer = dtoWriter(field);
+        String nullStatement = dtoType.getKind().isPrimitive() ? null : String.format(writer, "null");
+        readPath(code, "entity", entity, path.split("\\.", -1), 0, dtoType, field,
+            value -> String.format(writer, value), nullStatement);
+    }
+
+    /**
+     * Emit statements reading path starting from {@code i}-th segment of non-null {@code var}.
+     * Field is null when path of collection element is read.
+     */
+    private void readPath(Code code, String var, TypeMirror varType, String[] path, int i, TypeMirror dtoType,
+                          VariableElement field, Function<String, String> sink, String nullStatement)
+        throws BrokenLinkException, UnsupportedMappingException {
+        if (i == path.length) {
+            PostMapping postMapping = postMapping(varType, dtoType, field != null);
+            code.line(sink.apply(convert(postMapping, var, varType, dtoType, field != null)));
+            return;
+        }
+
+        Segment segment = readSegment(varType, path[i], field == null);
+        String value = variable("v");
+        code.line(typeName(segment.type) + " " + value + " = " + var + segment.access + ";");
+
+        boolean last = i == path.length - 1;
+        PostMapping postMapping = postMapping(segment.type, dtoType, field != null);
+        if (postMapping == PostMapping.COLLECTION) {
+            code.line(sink.apply(collection(code, value, segment.type, path, i + 1, dtoType, field)));
+            return;
+        }
+        if (postMapping != PostMapping.NONE) {
+            if (!last) {
+                throw new UnsupportedMappingException("conversion of intermediate property " + path[i]);
+            }
+            code.line(sink.apply(convert(postMapping, value, segment.type, dtoType, field != null)));
+            return;
+        }
+        if (last) {
+            if (field != null && !types.isAssignable(types.erasure(segment.type), types.erasure(dtoType))) {
+                throw new UnsupportedMappingException(segment.type + " isn't assignable to " + dtoType);
+            }
+            code.line(sink.apply(value));
+            return;
+        }
+
+        code.open("if (" + value + " != null) {");
+        readPath(code, value, segment.type, path, i + 1, dtoType, field, sink, nullStatement);
+        if (nullStatement != null) {
+            code.reopen("} else {");
+            code.line(nullStatement);
+        }
+        code.close("}");
+    }
+
+    private String convert(PostMapping postMapping, String value, TypeMirror type, TypeMirror dtoType,
+                           boolean topLevel) throws UnsupportedMappingException {
+        switch (postMapping) {
+            case ENUM:
+                if (isEnum(dtoType)) {
+                    return "(" + typeName(dtoType) + ") " + CONVERTER + ".toEnum((Class) " + typeName(dtoType)
+                        + ".class, " + value + ")";
+                }
+                if (isType(dtoType, String.class)) {
+                    return value + " == null ? null : " + value + ".name()";
+                }
+                if (!topLevel || isType(dtoType, Integer.class) || isType(dtoType, Number.class)) {
+                    return value + " == null ? null : (java.lang.Integer) " + value + ".ordinal()";
+                }
+                throw new UnsupportedMappingException("ordinal of " + type + " isn't assignable to " + dtoType);
+            case RECURSION:
+                return "processor.process(" + value + ", " + typeName(dtoType) + ".class)";
+            case ARRAY:
+                throw new UnsupportedMappingException("array conversion of " + type);
+            default:
+                return value;
+        }
+    }
+
+    private String collection(Code code, String value, TypeMirror type, String[] path, int i, TypeMirror dtoType,
+                              VariableElement field) throws BrokenLinkException, UnsupportedMappingException {
+        TypeMirror elementType = elementType(type);
+        TypeMirror dtoElementType = classValue(field, Contains.class);
+        if (dtoElementType == null) {
+            dtoElementType = elements.getTypeElement(Object.class.getName()).asType();
+        }
+        String emptyCollection = emptyCollectionType(dtoType);
+        String reader = dtoReader(field);
+
+        // Elements are mapped by separate method, so null element paths could be returned early
+        String helper = "map" + capitalize(field.getSimpleName().toString()) + "Element";
+        Code helperCode = new Code(1);
+        helperCode.open("private static Object " + helper + "(" + typeName(elementType) + " element, "
+            + PROCESSOR + " processor) {");
+        helperCode.open("if (element == null) {");
+        helperCode.line("return null;");
+        helperCode.close("}");
+        readPath(helperCode, "element", elementType, path, i, dtoElementType, null,
+            v -> "return " + v + ";", "return null;");
+        helperCode.close("}");
+        helpers.add(helperCode);
+
+        String collection = variable("c");
+        String element = variable("e");
+        code.line("java.util.Collection " + collection + " = " + reader + ";");
+        code.open("if (" + collection + " == null) {");
+        code.line(collection + " = new " + emptyCollection + "();");
+        code.close("}");
+        code.open("if (" + value + " != null) {");
+        code.open("for (Object " + element + " : " + value + ") {");
+        code.line(collection + ".add(" + helper + "((" + typeName(elementType) + ") " + element + ", processor));");
+        code.close("}");
+        code.close("}");
+        return "(" + typeName(dtoType) + ") " + collection;
+    }
+
+    private Segment readSegment(TypeMirror owner, String name, boolean element)
+        throws BrokenLinkException, UnsupportedMappingException {
+        VariableElement field = owner.getKind() == TypeKind.DECLARED ? findField(owner, name) : null;
+        ExecutableElement getter = owner.getKind() == TypeKind.DECLARED ? findGetter(owner, name) : null;
+        if (field == null && getter == null) {
+            String message = "Cannot access " + name + " from " + owner
+                + ", no such field or corresponding public getter method";
+            if (element) {
+                // Elements are resolved using their runtime classes, which could be subclasses of declared one
+                throw new UnsupportedMappingException(message);
+            }
+            throw new BrokenLinkException(message);
+        }
+
+        TypeMirror type = field != null ? memberType(owner, field) : returnType(owner, getter);
+        if (type.getKind() == TypeKind.ERROR) {
+            throw new UnsupportedMappingException("type of " + name + " can't be resolved");
+        }
+        if (getter != null && isAccessible(getter) && isSameErasure(returnType(owner, getter), type)) {
+            return new Segment(type, "." + getter.getSimpleName() + "()");
+        } else if (field != null && isAccessible(field)) {
+            return new Segment(type, "." + name);
+        }
+        throw new UnsupportedMappingException("no public getter for " + name + " in " + owner);
+    }
+
+    private PostMapping postMapping(TypeMirror type, TypeMirror dtoType, boolean topLevel) {
+        if (type.getKind() == TypeKind.ARRAY && dtoType.getKind() == TypeKind.ARRAY) {
+            return PostMapping.ARRAY;
+        }
+        if (topLevel && isSubtype(type, Collection.class) && isSubtype(dtoType, Collection.class)) {
+            return PostMapping.COLLECTION;
+        }
+        if (isEnumConvertible(type, dtoType) || isEnumConvertible(dtoType, type)) {
+            return PostMapping.ENUM;
+        }
+        if (dtoType.getKind() == TypeKind.DECLARED
+            && types.asElement(dtoType).getAnnotation(ClassLink.class) != null) {
+            return PostMapping.RECURSION;
+        }
+        return PostMapping.NONE;
+    }
+
+    private boolean isEnumConvertible(TypeMirror from, TypeMirror to) {
+        return isEnum(from) && (isEnum(to) || isType(to, String.class) || isSubtype(to, Number.class));
+    }
+
+    private TypeMirror elementType(TypeMirror collectionType) throws UnsupportedMappingException {
+        TypeMirror collection = types.erasure(elements.getTypeElement(Collection.class.getName()).asType());
+        Deque<TypeMirror> queue = new ArrayDeque<>(Collections.singleton(collectionType));
+        while (!queue.isEmpty()) {
+            TypeMirror current = queue.poll();
+            if (types.isSameType(types.erasure(current), collection)) {
+                List<? extends TypeMirror> arguments = ((DeclaredType) current).getTypeArguments();
+                if (arguments.size() == 1) {
+                    TypeMirror argument = arguments.get(0);
+                    if (argument.getKind() == TypeKind.WILDCARD) {
+                        argument = ((WildcardType) argument).getExtendsBound();
+                    }
+                    if (argument != null && argument.getKind() != TypeKind.ERROR) {
+                        return types.erasure(argument);
+                    }
+                }
+                break;
+            }
+            queue.addAll(types.directSupertypes(current));
+        }
+        throw new UnsupportedMappingException("element type of " + collectionType + " is unknown");
+    }
+
+    private String emptyCollectionType(TypeMirror dtoType) throws UnsupportedMappingException {
+        TypeElement element = (TypeElement) types.asElement(dtoType);
+        boolean hasPublicConstructor = ElementFilter.constructorsIn(element.getEnclosedElements()).stream()
+            .anyMatch(c -> c.getParameters().isEmpty() && c.getModifiers().contains(Modifier.PUBLIC));
+        if (element.getKind() == ElementKind.CLASS && !element.getModifiers().contains(Modifier.ABSTRACT)
+            && hasPublicConstructor) {
+            return typeName(dtoType);
+        } else if (isSubtype(dtoType, List.class)) {
+            return ArrayList.class.getName();
+        } else if (isSubtype(dtoType, Set.class)) {
+            return HashSet.class.getName();
+        } else if (isSubtype(dtoType, Queue.class)) {
+            return LinkedList.class.getName();
+        }
+        throw new UnsupportedMappingException("collection type " + dtoType + " is not supported");
+    }
+
+    // DTO -> Entity
+
+    private void writeField(Code code, TypeMirror entity, VariableElement field, String path)
+        throws BrokenLinkException, UnsupportedMappingException {
+        writePath(code, "entity", entity, path.split("\\.", -1), 0, field.asType(), dtoReader(field));
+    }
+
+    private void writePath(Code code, String target, TypeMirror targetType, String[] path, int i,
+                           TypeMirror dtoType, String value) throws BrokenLinkException, UnsupportedMappingException {
+        String name = path[i];
+        VariableElement field = targetType.getKind() == TypeKind.DECLARED ? findField(targetType, name) : null;
+        if (field == null) {
+            if (targetType.getKind() == TypeKind.DECLARED && findGetter(targetType, name) != null) {
+                // Read-only property, nothing to set
+                return;
+            }
+            String message = "Cannot access " + name + " from " + targetType + ", no such field";
+            if (i == 0) {
+                throw new BrokenLinkException(message);
+            }
+            throw new UnsupportedMappingException(message);
+        }
+
+        TypeMirror type = memberType(targetType, field);
+        boolean last = i == path.length - 1;
+        if (isEnum(type) && (isEnum(dtoType) || isType(dtoType, String.class) || isSubtype(dtoType, Number.class))
+            || isEnum(dtoType) && (isType(type, String.class) || isSubtype(type, Number.class) || isEnum(type))) {
+            if (!last || !isEnum(type)) {
+                throw new UnsupportedMappingException("enum conversion of " + name);
+            }
+            code.line(setter(target, targetType, field, "(" + typeName(type) + ") " + CONVERTER
+                + ".toEnum((Class) " + typeName(type) + ".class, " + value + ")"));
+            return;
+        }
+        if (isRelation(type, path, i)) {
+            throw new UnsupportedMappingException("relation " + name + " is looked up by primary key at runtime");
+        }
+        if (last) {
+            if (!types.isAssignable(types.erasure(dtoType), types.erasure(type))) {
+                throw new UnsupportedMappingException(dtoType + " isn't assignable to " + type);
+            }
+            code.line(setter(target, targetType, field, value));
+            return;
+        }
+
+        ExecutableElement getter = findGetter(targetType, name);
+        if (getter == null || !isAccessible(getter) || !isSameErasure(returnType(targetType, getter), type)) {
+            throw new UnsupportedMappingException("no public getter for " + name + " in " + targetType);
+        }
+        if (type.getKind() != TypeKind.DECLARED || checkInstantiable((TypeElement) types.asElement(type)) != null) {
+            throw new UnsupportedMappingException(type + " can't be instantiated");
+        }
+        String current = variable("v");
+        code.line(typeName(type) + " " + current + " = " + target + "." + getter.getSimpleName() + "();");
+        code.open("if (" + current + " == null) {");
+        code.line(current + " = new " + typeName(type) + "();");
+        code.line(setter(target, targetType, field, current));
+        code.close("}");
+        writePath(code, current, type, path, i + 1, dtoType, value);
+    }
+
+    private boolean isRelation(TypeMirror type, String[] path, int i) {
+        if (path.length - i < 2 || type.getKind() != TypeKind.DECLARED
+            || !hasAnnotation(types.asElement(type), ENTITY_ANNOTATION)) {
+            return false;
+        }
+        VariableElement id = findField(type, path[i + 1]);
+        return id != null && hasAnnotation(id, ID_ANNOTATION);
+    }
+
+    private String setter(String target, TypeMirror targetType, VariableElement field, String value)
+        throws UnsupportedMappingException {
+        String name = field.getSimpleName().toString();
+        TypeMirror type = memberType(targetType, field);
+        for (ExecutableElement method : methods(targetType)) {
+            if (method.getSimpleName().contentEquals("set" + capitalize(name)) && method.getParameters().size() == 1
+                && isAccessible(method) && !method.getModifiers().contains(Modifier.STATIC)
+                && isSameErasure(parameterType(targetType, method), type)) {
+                return target + "." + method.getSimpleName() + "(" + value + ");";
+            }
+        }
+        if (isAccessible(field) && !field.getModifiers().contains(Modifier.FINAL)) {
+            return target + "." + name + " = " + value + ";";
+        }
+        throw new UnsupportedMappingException("no public setter for " + name + " in " + targetType);
+    }
+
+    // DTO accessors
+
+    private String dtoReader(VariableElement field) throws UnsupportedMappingException {
+        ExecutableElement getter = findGetter(dto.asType(), field.getSimpleName().toString());
+        if (getter != null && isAccessible(getter) && isSameErasure(getter.getReturnType(), field.asType())) {
+            return "dto." + getter.getSimpleName() + "()";
+        } else if (isAccessible(field)) {
+            return "dto." + field.getSimpleName();
+        }
+        throw new UnsupportedMappingException("DTO property isn't readable");
+    }
+
+    private String dtoWriter(VariableElement field) throws UnsupportedMappingException {
+        try {
+            return setter("dto", dto.asType(), field, "%s");
+        } catch (UnsupportedMappingException e) {
+            throw new UnsupportedMappingException("DTO property isn't writable");
+        }
+    }
+
+    private List<VariableElement> linkedFields() {
+        // Fields of superclasses take precedence, as in ClassCache
+        Map<String, VariableElement> fields = new LinkedHashMap<>();
+        for (TypeElement type = dto; type != null; type = superclass(type)) {
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC) && field.getAnnotation(Ignored.class) == null) {
+                    fields.put(field.getSimpleName().toString(), field);
+                }
+            }
+        }
+        return new ArrayList<>(fields.values());
+    }
+
+    private static String toDotPath(VariableElement field) {
+        Link link = field.getAnnotation(Link.class);
+        String path = link == null ? null : link.value();
+        if (path == null || path.isEmpty()) {
+            path = field.getSimpleName().toString();
+        }
+        return path;
+    }
+
+    private String checkTypes(TypeMirror entity) {
+        if (!isAccessible((TypeElement) types.asElement(entity))) {
+            return entity + " isn't accessible from package " + packageName;
+        }
+        if (!isAccessible(dto) || dto.getNestingKind().isNested() && !dto.getModifiers().contains(Modifier.STATIC)) {
+            return "DTO class isn't accessible";
+        }
+        return null;
+    }
+
+    private String checkConstructor() {
+        return checkInstantiable(dto);
+    }
+
+    private String checkInstantiable(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)
+            || !isAccessible(type)) {
+            return type + " isn't instantiable";
+        }
+        boolean hasConstructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+            .anyMatch(c -> c.getParameters().isEmpty() && isAccessible(c));
+        return hasConstructor ? null : "no accessible default constructor in " + type;
+    }
+
+    // Type utilities
+
+    private VariableElement findField(TypeMirror owner, String name) {
+        VariableElement found = null;
+        for (TypeElement type = (TypeElement) types.asElement(owner); type != null; type = superclass(type)) {
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (field.getSimpleName().contentEquals(name)) {
+                    found = field;
+                }
+            }
+        }
+        return found;
+    }
+
+    private ExecutableElement findGetter(TypeMirror owner, String name) {
+        if (name.isEmpty() || !name.equals(name.substring(0, 1).toLowerCase() + name.substring(1))) {
+            return null;
+        }
+        for (ExecutableElement method : methods(owner)) {
+            TypeMirror returnType = method.getReturnType();
+            if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)
+                || !method.getParameters().isEmpty() || returnType.getKind() == TypeKind.VOID
+                || isType(returnType, Void.class)) {
+                continue;
+            }
+            String methodName = method.getSimpleName().toString();
+            boolean isBoolean = returnType.getKind() == TypeKind.BOOLEAN || isType(returnType, Boolean.class);
+            if (methodName.equals("get" + capitalize(name)) || isBoolean && methodName.equals("is" + capitalize(name))) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private List<ExecutableElement> methods(TypeMirror owner) {
+        return ElementFilter.methodsIn(elements.getAllMembers((TypeElement) types.asElement(owner)));
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED || isType(superclass, Object.class)) {
+            return null;
+        }
+        return (TypeElement) types.asElement(superclass);
+    }
+
+    private TypeMirror memberType(TypeMirror owner, Element member) {
+        try {
+            return types.asMemberOf((DeclaredType) owner, member);
+        } catch (IllegalArgumentException e) {
+            return member.asType();
+        }
+    }
+
+    private TypeMirror returnType(TypeMirror owner, ExecutableElement method) {
+        TypeMirror type = memberType(owner, method);
+        return type instanceof ExecutableType ? ((ExecutableType) type).getReturnType() : method.getReturnType();
+    }
+
+    private TypeMirror parameterType(TypeMirror owner, ExecutableElement method) {
+        TypeMirror type = memberType(owner, method);
+        return type instanceof ExecutableType
+            ? ((ExecutableType) type).getParameterTypes().get(0) : method.getParameters().get(0).asType();
+    }
+
+    private TypeMirror classValue(Element element, Class<?> annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (!isType(mirror.getAnnotationType(), annotation)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")
+                    && entry.getValue().getValue() instanceof TypeMirror) {
+                    return (TypeMirror) entry.getValue().getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean hasAnnotation(Element element, String annotation) {
+        return element.getAnnotationMirrors().stream()
+            .anyMatch(m -> ((TypeElement) m.getAnnotationType().asElement()).getQualifiedName()
+                .contentEquals(annotation));
+    }
+
+    private boolean isAccessible(Element element) {
+        for (Element e = element; e != null && e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE) || !e.getModifiers().contains(Modifier.PUBLIC)
+                && !elements.getPackageOf(e).getQualifiedName().contentEquals(packageName)) {
+                return false;
+            }
+            if (!(e instanceof TypeElement) && e.getModifiers().contains(Modifier.PUBLIC)) {
+                // Public members are accessible through the accessible type of the variable
+                return true;
+            }
+        }
+        return true;
+    }
+
+    private boolean isEnum(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && types.asElement(type).getKind() == ElementKind.ENUM;
+    }
+
+    private boolean isType(TypeMirror type, Class<?> clazz) {
+        return type.getKind() == TypeKind.DECLARED
+            && ((TypeElement) types.asElement(type)).getQualifiedName().contentEquals(clazz.getCanonicalName());
+    }
+
+    private boolean isSubtype(TypeMirror type, Class<?> clazz) {
+        return type.getKind() == TypeKind.DECLARED && types.isSubtype(types.erasure(type),
+            types.erasure(elements.getTypeElement(clazz.getCanonicalName()).asType()));
+    }
+
+    private boolean isSameErasure(TypeMirror t1, TypeMirror t2) {
+        return types.isSameType(types.erasure(t1), types.erasure(t2));
+    }
+
+    private String typeName(TypeMirror type) {
+        return types.erasure(type).toString();
+    }
+
+    private String variable(String prefix) {
+        return prefix + (++variables);
+    }
+
+    private static String capitalize(String name) {
+        return name.isEmpty() ? name : name.substring(0, 1).toUpperCase() + name.substring(1);
+    }
+
+    /**
+     * Post mappings of {@link com.habds.lcl.core.processor.impl.SimpleLinkProcessor}, in the order of applying
+     */
+    private enum PostMapping {
+        ARRAY, COLLECTION, ENUM, RECURSION, NONE
+    }
+
+    private static class Segment {
+
+        private final TypeMirror type;
+        private final String access;
+
+        Segment(TypeMirror type, String access) {
+            this.type = type;
+            this.access = access;
+        }
+    }
+
+    /**
+     * Link path can't be resolved against the Entity class - runtime configuration would fail as well
+     */
+    private static class BrokenLinkException extends Exception {
+
+        BrokenLinkException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Link is valid, but can't be expressed in generated code, runtime mapping will be used instead
+     */
+    private static class UnsupportedMappingException extends Exception {
+
+        UnsupportedMappingException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Source code builder keeping track of indentation
+     */
+    private static class Code {
+
+        private final StringBuilder builder = new StringBuilder();
+        private int indent;
+
+        Code(int indent) {
+            this.indent = indent;
+        }
+
+        void line(String line) {
+            if (!line.isEmpty()) {
+                for (int i = 0; i < indent; i++) {
+                    builder.append("    ");
+                }
+            }
+            builder.append(line).append('\n');
+        }
+
+        void open(String line) {
+            line(line);
+            indent++;
+        }
+
+        void reopen(String line) {
+            indent--;
+            line(line);
+            indent++;
+        }
+
+        void close(String line) {
+            indent--;
+            line(line);
+        }
+
+        void append(Code code) {
+            builder.append(code.builder);
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
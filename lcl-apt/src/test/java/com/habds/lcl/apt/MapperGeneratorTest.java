@@ -0,0 +1,208 @@
+package com.habds.lcl.apt;
+
+import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.processor.DtoToEntityMerger;
+import com.habds.lcl.core.processor.EntityToDtoMapper;
+import com.habds.lcl.core.processor.impl.SimpleProcessor;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compiles fixture DTOs with {@link ClassLinkAnnotationProcessor} and checks that generated mappers
+ * and mergers give the same results as the runtime mappings of {@link SimpleProcessor}
+ *
+ * @version 1
+ * @since 10/18/26 5:02 PM
+ */
+public class MapperGeneratorTest {
+
+    private static final String FIXTURE_PACKAGE = "com.habds.lcl.apt.fixture";
+    private static final List<String> FIXTURES = Arrays.asList("Status", "Country", "Address", "Account", "Client",
+        "AddressDto", "AccountDto", "ClientDto", "UpdateClientDto");
+
+    private static ClassLoader classLoader;
+    private static SimpleProcessor runtime;
+    private static SimpleProcessor generated;
+
+    @BeforeClass
+    public static void compileFixtures() throws Exception {
+        Path root = Files.createTempDirectory("lcl-apt-test");
+        Path sources = Files.createDirectories(root.resolve("src"));
+        Path classes = Files.createDirectories(root.resolve("classes"));
+        Path generatedSources = Files.createDirectories(root.resolve("generated"));
+        List<File> files = new ArrayList<>();
+        for (String fixture : FIXTURES) {
+            Path file = sources.resolve(fixture + ".java");
+            try (InputStream in = MapperGeneratorTest.class.getResourceAsStream("fixture/" + fixture + ".java")) {
+                Files.copy(in, file);
+            }
+            files.add(file.toFile());
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                Arrays.asList("-d", classes.toString(), "-s", generatedSources.toString(),
+                    "-classpath", classPath()),
+                null, fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(Collections.singletonList(new ClassLinkAnnotationProcessor()));
+            assertTrue("Fixtures aren't compiled: " + diagnostics.getDiagnostics(), task.call());
+        }
+
+        classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()},
+            MapperGeneratorTest.class.getClassLoader());
+        List<Class> dtos = Arrays.asList(fixture("AddressDto"), fixture("AccountDto"), fixture("ClientDto"),
+            fixture("UpdateClientDto"));
+        runtime = new SimpleProcessor().add(dtos).configure();
+        generated = new SimpleProcessor().useGeneratedMappers(true).add(dtos).configure();
+    }
+
+    @Test
+    public void testMappersAreGenerated() throws Exception {
+        for (String dto : Arrays.asList("AddressDto", "AccountDto", "ClientDto", "UpdateClientDto")) {
+            Class<?> mapper = classLoader.loadClass(EntityToDtoMapper.generatedClassName(fixture(dto)));
+            assertTrue(EntityToDtoMapper.class.isAssignableFrom(mapper));
+        }
+        // Collection of nested DTOs can't be written back, so merger is generated only for flat DTOs
+        assertFalse(DtoToEntityMerger.class.isAssignableFrom(generatedClass("ClientDto")));
+        assertTrue(DtoToEntityMerger.class.isAssignableFrom(generatedClass("UpdateClientDto")));
+    }
+
+    @Test
+    public void testNestedDtosCollectionsAndEnums() throws Exception {
+        Object client = client("Bob", 42, "BLOCKED", "Kyiv", "Ukraine",
+            account("A-1", "ACTIVE"), account("A-2", null), null);
+        assertSameMapping(client, fixture("ClientDto"));
+    }
+
+    @Test
+    public void testNullIntermediates() throws Exception {
+        Object client = runtime.merge(fixture("Client").newInstance(), Collections.singletonMap("name", "Alice"));
+        assertSameMapping(client, fixture("ClientDto"));
+
+        // Address without country
+        client = client("Alice", 0, null, "Lviv", null);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("address.country", null);
+        runtime.merge(client, properties);
+        assertSameMapping(client, fixture("ClientDto"));
+    }
+
+    @Test
+    public void testMergers() throws Exception {
+        Object dto = fixture("UpdateClientDto").newInstance();
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("name", "Carol");
+        properties.put("age", 30);
+        properties.put("status", "ACTIVE");
+        properties.put("city", "Odesa");
+        properties.put("country", "Ukraine");
+        setFields(dto, properties);
+
+        Object expected = runtime.merge(fixture("Client").newInstance(), dto);
+        Object actual = generated.merge(fixture("Client").newInstance(), dto);
+        // Compare merged Entities by reading them back with the runtime mappings
+        Object expectedState = runtime.process(expected, fixture("UpdateClientDto"));
+        assertSameState("Client", expectedState, runtime.process(actual, fixture("UpdateClientDto")));
+        assertEquals("Odesa", expectedState.getClass().getMethod("getCity").invoke(expectedState));
+    }
+
+    private static void assertSameMapping(Object entity, Class<?> dtoClass) throws Exception {
+        Object expected = runtime.process(entity, dtoClass);
+        Object actual = generated.process(entity, dtoClass);
+        assertNotSame(expected, actual);
+        assertSameState(dtoClass.getSimpleName(), expected, actual);
+    }
+
+    /**
+     * Compare DTOs property by property, going into nested DTOs and collections
+     */
+    private static void assertSameState(String path, Object expected, Object actual) throws Exception {
+        if (expected == null || actual == null) {
+            assertEquals(path, expected, actual);
+        } else if (expected.getClass().isAnnotationPresent(ClassLink.class)) {
+            assertEquals(path, expected.getClass(), actual.getClass());
+            for (Field field : expected.getClass().getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    field.setAccessible(true);
+                    assertSameState(path + "." + field.getName(), field.get(expected), field.get(actual));
+                }
+            }
+        } else if (expected instanceof List) {
+            assertEquals(path, expected.getClass(), actual.getClass());
+            List<?> expectedList = (List<?>) expected;
+            List<?> actualList = (List<?>) actual;
+            assertEquals(path + ".size", expectedList.size(), actualList.size());
+            for (int i = 0; i < expectedList.size(); i++) {
+                assertSameState(path + "[" + i + "]", expectedList.get(i), actualList.get(i));
+            }
+        } else {
+            assertEquals(path, expected, actual);
+        }
+    }
+
+    private static Object client(String name, int age, String status, String city, String country,
+                                 Object... accounts) throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("name", name);
+        properties.put("age", age);
+        properties.put("status", status == null ? null : status(status));
+        properties.put("address.city", city);
+        if (country != null) {
+            properties.put("address.country.name", country);
+        }
+        if (accounts.length > 0) {
+            properties.put("accounts", new ArrayList<>(Arrays.asList(accounts)));
+        }
+        return runtime.merge(fixture("Client").newInstance(), properties);
+    }
+
+    private static Object account(String number, String status) throws Exception {
+        Class<?> statusClass = fixture("Status");
+        return fixture("Account").getConstructor(String.class, statusClass)
+            .newInstance(number, status == null ? null : status(status));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object status(String name) throws Exception {
+        return Enum.valueOf((Class<Enum>) fixture("Status"), name);
+    }
+
+    private static void setFields(Object object, Map<String, Object> values) throws Exception {
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            Field field = object.getClass().getDeclaredField(value.getKey());
+            field.setAccessible(true);
+            field.set(object, value.getValue());
+        }
+    }
+
+    /**
+     * Fixtures need only lcl-core annotations. Test runners may hide real class path behind manifest-only jar,
+     * so it is taken from the location of lcl-core classes.
+     */
+    private static String classPath() throws Exception {
+        return new File(ClassLink.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+
+    private static Class<?> fixture(String name) throws ClassNotFoundException {
+        return classLoader.loadClass(FIXTURE_PACKAGE + "." + name);
+    }
+
+    private static Class<?> generatedClass(String dto) throws ClassNotFoundException {
+        return classLoader.loadClass(EntityToDtoMapper.generatedClassName(fixture(dto)));
+    }
+}
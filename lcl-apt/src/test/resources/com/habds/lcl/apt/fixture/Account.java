@@ -0,0 +1,31 @@
+package com.habds.lcl.apt.fixture;
+
+public class Account {
+
+    private String number;
+    private Status status;
+
+    public Account() {
+    }
+
+    public Account(String number, Status status) {
+        this.number = number;
+        this.status = status;
+    }
+
+    public String getNumber() {
+        return number;
+    }
+
+    public void setNumber(String number) {
+        this.number = number;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,26 @@
+package com.habds.lcl.apt.fixture;
+
+import com.habds.lcl.core.annotation.ClassLink;
+
+@ClassLink(Account.class)
+public class AccountDto {
+
+    private String number;
+    private String status;
+
+    public String getNumber() {
+        return number;
+    }
+
+    public void setNumber(String number) {
+        this.number = number;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
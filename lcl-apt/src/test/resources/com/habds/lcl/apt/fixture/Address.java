@@ -0,0 +1,23 @@
+package com.habds.lcl.apt.fixture;
+
+public class Address {
+
+    private String city;
+    private Country country;
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public Country getCountry() {
+        return country;
+    }
+
+    public void setCountry(Country country) {
+        this.country = country;
+    }
+}
@@ -0,0 +1,28 @@
+package com.habds.lcl.apt.fixture;
+
+import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.annotation.Link;
+
+@ClassLink(Address.class)
+public class AddressDto {
+
+    private String city;
+    @Link("country.name")
+    private String country;
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+}
@@ -0,0 +1,120 @@
+package com.habds.lcl.apt.fixture;
+
+import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.annotation.Contains;
+import com.habds.lcl.core.annotation.Link;
+
+import java.util.List;
+
+@ClassLink(Client.class)
+public class ClientDto {
+
+    private String name;
+    private int age;
+    private Status status;
+    @Link("status")
+    private String statusName;
+    @Link("status")
+    private Integer statusCode;
+    private AddressDto address;
+    @Link("address.city")
+    private String city;
+    @Link("address.country.name")
+    private String country;
+    @Contains(AccountDto.class)
+    private List<AccountDto> accounts;
+    @Link("accounts.number")
+    @Contains(String.class)
+    private List<String> accountNumbers;
+    @Link("accounts.status")
+    @Contains(String.class)
+    private List<String> accountStatuses;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getStatusName() {
+        return statusName;
+    }
+
+    public void setStatusName(String statusName) {
+        this.statusName = statusName;
+    }
+
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(Integer statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public AddressDto getAddress() {
+        return address;
+    }
+
+    public void setAddress(AddressDto address) {
+        this.address = address;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public List<AccountDto> getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(List<AccountDto> accounts) {
+        this.accounts = accounts;
+    }
+
+    public List<String> getAccountNumbers() {
+        return accountNumbers;
+    }
+
+    public void setAccountNumbers(List<String> accountNumbers) {
+        this.accountNumbers = accountNumbers;
+    }
+
+    public List<String> getAccountStatuses() {
+        return accountStatuses;
+    }
+
+    public void setAccountStatuses(List<String> accountStatuses) {
+        this.accountStatuses = accountStatuses;
+    }
+}
@@ -0,0 +1,14 @@
+package com.habds.lcl.apt.fixture;
+
+public class Country {
+
+    private String name;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,5 @@
+package com.habds.lcl.apt.fixture;
+
+public enum Status {
+    ACTIVE, BLOCKED
+}
@@ -0,0 +1,56 @@
+package com.habds.lcl.apt.fixture;
+
+import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.annotation.Link;
+
+@ClassLink(Client.class)
+public class UpdateClientDto {
+
+    private String name;
+    private int age;
+    private String status;
+    @Link("address.city")
+    private String city;
+    @Link("address.country.name")
+    private String country;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+}
@@ -0,0 +1,20 @@
+package com.habds.lcl.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation marks field linked to the primary key of the relation (like {@code @Link("manager.id")})
+ * to set the relation by reference, without loading it from the database. Existence of the relation
+ * is verified by foreign key constraint on flush.
+ *
+ * @version 1
+ * @see com.habds.lcl.core.processor.impl.ext.JpaRelationSetterPostMapping
+ * @since 10/18/26 4:36 PM
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Reference {
+}
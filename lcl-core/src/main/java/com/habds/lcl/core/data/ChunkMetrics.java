@@ -0,0 +1,68 @@
+package com.habds.lcl.core.data;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of a single chunk written by bulk operations
+ * (see {@link EntityManagerRepository#createAll(Iterable)}): number of written Entities
+ * and time spent for mapping, persisting and flushing them
+ *
+ * @version 1
+ * @since 10/18/26 4:39 PM
+ */
+public class ChunkMetrics {
+
+    private final int chunk;
+    private final int size;
+    private final long total;
+    private final long durationNanos;
+
+    public ChunkMetrics(int chunk, int size, long total, long durationNanos) {
+        this.chunk = chunk;
+        this.size = size;
+        this.total = total;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return zero-based number of the chunk
+     */
+    public int getChunk() {
+        return chunk;
+    }
+
+    /**
+     * @return number of Entities written in this chunk
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return number of Entities written in this chunk and all the previous ones
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getDuration(TimeUnit unit) {
+        return unit.convert(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return Entities written per second within this chunk
+     */
+    public double getThroughput() {
+        return durationNanos == 0 ? 0 : size * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkMetrics(chunk=" + chunk + ",size=" + size + ",total=" + total
+            + ",ms=" + getDuration(TimeUnit.MILLISECONDS) + ",perSecond=" + Math.round(getThroughput()) + ")";
+    }
+}
@@ -0,0 +1,210 @@
+package com.habds.lcl.core.data;
+
+import com.habds.lcl.core.data.filter.Filter;
+import com.habds.lcl.core.processor.Processor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.FlushModeType;
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * {@link EntityManagerRepository} running content and count queries of paged DTOs concurrently, so the latency
+ * of {@link ConcurrentEntityManagerRepository#getAll(Map, PagingAndSorting, Class)} is roughly the maximum
+ * of the two queries instead of their sum. Each query uses its own entity manager created by
+ * {@link EntityManagerFactory}, only for reading, and closed right after: the count query is run by the executor,
+ * the content query and conversion into DTOs are run by the calling thread. If the page proves the total
+ * (see {@link EntityManagerRepository#getProvenTotal(PagingAndSorting, int)}), the count isn't waited for.
+ * <p>
+ * The queries run outside of the caller's transaction, so they don't see its uncommitted changes and may see
+ * different committed states. Other operations, pages of Entities and keyset pages use the shared
+ * {@link EntityManager} as usual.
+ *
+ * @version 1
+ * @since 10/18/26 4:52 PM
+ */
+public class ConcurrentEntityManagerRepository extends EntityManagerRepository {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    protected EntityManagerFactory entityManagerFactory;
+    protected Executor executor;
+
+    public ConcurrentEntityManagerRepository() {
+    }
+
+    public ConcurrentEntityManagerRepository(Processor processor, EntityManager em,
+                                             EntityManagerFactory entityManagerFactory) {
+        super(processor, em);
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public ConcurrentEntityManagerRepository(Processor processor, EntityManager em,
+                                             EntityManagerFactory entityManagerFactory, Executor executor) {
+        this(processor, em, entityManagerFactory);
+        this.executor = executor;
+    }
+
+    /**
+     * Default executor shared by all the repositories, created on first use
+     */
+    private static class DefaultExecutor {
+
+        private static final Executor INSTANCE = createDefaultExecutor();
+    }
+
+    /**
+     * Create executor running each task in new virtual thread if they are available (Java 21+),
+     * otherwise in cached daemon thread
+     *
+     * @return executor
+     */
+    public static ExecutorService createDefaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "lcl-repository-" + THREAD_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @Override
+    public <ENTITY, DTO> Sheet<DTO> getAll(Map<String, Filter> filters, PagingAndSorting pagingAndSorting,
+                                           Class<DTO> dtoClass) {
+        if (pagingAndSorting.isKeyset()) {
+            return super.getAll(filters, pagingAndSorting, dtoClass);
+        }
+        return getConcurrently(processor.createSpecs(filters, dtoClass), pagingAndSorting, dtoClass, false);
+    }
+
+    @Override
+    public <ENTITY, DTO> Sheet<DTO> getAllDistinct(Map<String, Filter> filters, PagingAndSorting pagingAndSorting,
+                                                   Class<DTO> dtoClass) {
+        if (pagingAndSorting.isKeyset()) {
+            return super.getAllDistinct(filters, pagingAndSorting, dtoClass);
+        }
+        return getConcurrently(processor.createSpecs(filters, dtoClass), pagingAndSorting, dtoClass, true);
+    }
+
+    /**
+     * Get page of DTOs running count query concurrently with content query
+     *
+     * @param specs            filtering specification
+     * @param pagingAndSorting pagination and sorting settings
+     * @param dtoClass         DTO class
+     * @param distinct         true to eliminate duplicates
+     * @param <ENTITY>         type of Entity
+     * @param <DTO>            type of DTO
+     * @return page of DTOs
+     */
+    protected <ENTITY, DTO> Sheet<DTO> getConcurrently(Specs<ENTITY> specs, PagingAndSorting pagingAndSorting,
+                                                       Class<DTO> dtoClass, boolean distinct) {
+        CompletableFuture<Long> count = pagingAndSorting.isCounted()
+            ? CompletableFuture.supplyAsync(() -> withEntityManager(repository ->
+            repository.createCountQuery(specs, dtoClass, distinct).getSingleResult()), getExecutor())
+            : CompletableFuture.completedFuture(null);
+        List<DTO> content;
+        try {
+            content = withEntityManager(repository -> repository.getAllDTOs(specs, pagingAndSorting, dtoClass,
+                distinct));
+        } catch (RuntimeException ex) {
+            count.cancel(false);
+            throw ex;
+        }
+        Long total = pagingAndSorting.isCounted() ? getProvenTotal(pagingAndSorting, content.size()) : null;
+        if (total != null) {
+            // Not started count query is skipped, the running one is left to finish
+            count.cancel(false);
+        } else {
+            total = join(count);
+        }
+        return new Sheet<>(content, total, pagingAndSorting, null);
+    }
+
+    /**
+     * Perform reading with new entity manager, closed afterwards
+     *
+     * @param reading function reading via repository bound to the new entity manager
+     * @param <T>     type of the result
+     * @return result of the reading
+     */
+    protected <T> T withEntityManager(Function<EntityManagerRepository, T> reading) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            // Nothing is written, so the persistence context is never flushed
+            entityManager.setFlushMode(FlushModeType.COMMIT);
+            return reading.apply(createReadingRepository(entityManager));
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Create repository bound to the specified entity manager and sharing settings of this repository.
+     * Its Entity queries are read-only ({@link EntityManagerRepository#READ_ONLY_HINT}), since the Entities
+     * are only converted into DTOs. Count and projection queries select no Entities, so they aren't marked.
+     *
+     * @param entityManager entity manager
+     * @return repository
+     */
+    protected EntityManagerRepository createReadingRepository(EntityManager entityManager) {
+        EntityManagerRepository repository = new EntityManagerRepository(processor, entityManager) {
+            @Override
+            protected void applyQueryHints(TypedQuery<?> query) {
+                query.setHint(READ_ONLY_HINT, true);
+            }
+        };
+        repository.setChunkSize(chunkSize);
+        repository.setUseFetchPlans(useFetchPlans);
+        repository.setUseProjections(useProjections);
+        repository.setNullsFirst(nullsFirst);
+        return repository;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    public EntityManagerFactory getEntityManagerFactory() {
+        return entityManagerFactory;
+    }
+
+    public void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * @return executor set by {@link ConcurrentEntityManagerRepository#setExecutor(Executor)} or the default one
+     */
+    public Executor getExecutor() {
+        return executor != null ? executor : DefaultExecutor.INSTANCE;
+    }
+
+    /**
+     * @param executor executor running count queries, nullable; by default single executor created
+     *                 by {@link ConcurrentEntityManagerRepository#createDefaultExecutor()} is shared
+     *                 by all the repositories
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+}
@@ -2,27 +2,57 @@ package com.habds.lcl.core.data;
 
 import com.habds.lcl.core.data.filter.Filter;
 import com.habds.lcl.core.processor.Processor;
+import com.habds.lcl.core.processor.RelationBatch;
+import com.habds.lcl.core.processor.impl.SimpleConverter;
+import com.habds.lcl.core.processor.impl.util.ClassCache;
 
+import javax.persistence.EntityGraph;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.Tuple;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.*;
-import java.util.List;
-import java.util.Map;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.SingularAttribute;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Helper class provides simple convenient methods to retrieve linked entities via {@link EntityManager}
  * using specified filters, sortings etc.
  *
  * @author Yurii Smyrnov
- * @version 2
+ * @version 8
  * @since 1/4/16 10:38 PM
  */
 public class EntityManagerRepository {
 
+    /**
+     * JDBC fetch size query hint, supported by Hibernate and ignored by other providers
+     */
+    public static final String FETCH_SIZE_HINT = "org.hibernate.fetchSize";
+
+    /**
+     * Read-only query hint: loaded Entities aren't dirty checked, supported by Hibernate and ignored
+     * by other providers
+     */
+    public static final String READ_ONLY_HINT = "org.hibernate.readOnly";
+
     protected Processor processor;
     protected EntityManager em;
+    protected int chunkSize = 1000;
+    protected boolean useFetchPlans = false;
+    protected boolean useProjections = false;
+    protected Consumer<ChunkMetrics> chunkListener;
+    protected boolean nullsFirst = false;
 
     /**
      * Get all Entity records by specified filters map and DTO class
@@ -87,8 +117,13 @@ public class EntityManagerRepository {
     public <ENTITY, DTO> Sheet<DTO> getAll(Map<String, Filter> filters, PagingAndSorting pagingAndSorting,
                                            Class<DTO> dtoClass) {
         Specs<ENTITY> specs = processor.createSpecs(filters, dtoClass);
-        List<DTO> content = processor.process(getAll(specs, pagingAndSorting, dtoClass, false), dtoClass);
-        return new Sheet<>(content, createCountQuery(specs, dtoClass, false).getSingleResult(), pagingAndSorting);
+        if (pagingAndSorting.isKeyset()) {
+            return getKeysetSheet(specs, pagingAndSorting, dtoClass, false, true)
+                .map(entity -> processor.process(entity, dtoClass));
+        }
+        List<DTO> content = getAllDTOs(specs, pagingAndSorting, dtoClass, false);
+        return new Sheet<>(content, count(specs, pagingAndSorting, dtoClass, false, content.size()),
+            pagingAndSorting, null);
     }
 
     /**
@@ -104,8 +139,13 @@ public class EntityManagerRepository {
     public <ENTITY, DTO> Sheet<DTO> getAllDistinct(Map<String, Filter> filters, PagingAndSorting pagingAndSorting,
                                                    Class<DTO> dtoClass) {
         Specs<ENTITY> specs = processor.createSpecs(filters, dtoClass);
-        List<DTO> content = processor.process(getAll(specs, pagingAndSorting, dtoClass, true), dtoClass);
-        return new Sheet<>(content, createCountQuery(specs, dtoClass, true).getSingleResult(), pagingAndSorting);
+        if (pagingAndSorting.isKeyset()) {
+            return getKeysetSheet(specs, pagingAndSorting, dtoClass, true, true)
+                .map(entity -> processor.process(entity, dtoClass));
+        }
+        List<DTO> content = getAllDTOs(specs, pagingAndSorting, dtoClass, true);
+        return new Sheet<>(content, count(specs, pagingAndSorting, dtoClass, true, content.size()),
+            pagingAndSorting, null);
     }
 
     /**
@@ -119,8 +159,12 @@ public class EntityManagerRepository {
      */
     public <ENTITY, DTO> Sheet<ENTITY> getAll(DTO dto, PagingAndSorting pagingAndSorting) {
         Specs<ENTITY> specs = processor.createSpecs(dto);
+        if (pagingAndSorting.isKeyset()) {
+            return getKeysetSheet(specs, pagingAndSorting, dto.getClass(), false, false);
+        }
         List<ENTITY> content = getAll(specs, pagingAndSorting, dto.getClass(), false);
-        return new Sheet<>(content, createCountQuery(specs, dto.getClass(), false).getSingleResult(), pagingAndSorting);
+        return new Sheet<>(content, count(specs, pagingAndSorting, dto.getClass(), false, content.size()),
+            pagingAndSorting, null);
     }
 
     /**
@@ -134,35 +178,831 @@ public class EntityManagerRepository {
      */
     public <ENTITY, DTO> Sheet<ENTITY> getAllDistinct(DTO dto, PagingAndSorting pagingAndSorting) {
         Specs<ENTITY> specs = processor.createSpecs(dto);
+        if (pagingAndSorting.isKeyset()) {
+            return getKeysetSheet(specs, pagingAndSorting, dto.getClass(), true, false);
+        }
         List<ENTITY> content = getAll(specs, pagingAndSorting, dto.getClass(), true);
-        return new Sheet<>(content, createCountQuery(specs, dto.getClass(), true).getSingleResult(), pagingAndSorting);
+        return new Sheet<>(content, count(specs, pagingAndSorting, dto.getClass(), true, content.size()),
+            pagingAndSorting, null);
+    }
+
+    /**
+     * Get slice of results converted from Entities to DTOs by specified filters map and DTO class:
+     * page without total number of elements. One extra row is selected instead of the count query
+     * to find out whether the next page exists. Pages selected by keyset are returned as they are.
+     *
+     * @param filters          filters map
+     * @param pagingAndSorting pagination and sorting settings
+     * @param dtoClass         DTO class
+     * @param <ENTITY>         type of Entity
+     * @param <DTO>            type of DTO
+     * @return slice of Entities converted into DTOs
+     * @see Sheet#hasNext()
+     */
+    public <ENTITY, DTO> Sheet<DTO> getSlice(Map<String, Filter> filters, PagingAndSorting pagingAndSorting,
+                                             Class<DTO> dtoClass) {
+        if (pagingAndSorting.isKeyset()) {
+            return getAll(filters, pagingAndSorting, dtoClass);
+        }
+        Specs<ENTITY> specs = processor.createSpecs(filters, dtoClass);
+        return toSlice(getAllDTOs(specs, pagingAndSorting, dtoClass, false, true), pagingAndSorting);
+    }
+
+    /**
+     * Get slice of Entities by specified filtering DTO, see {@link EntityManagerRepository#getSlice(Map,
+     * PagingAndSorting, Class)}
+     *
+     * @param dto              DTO
+     * @param pagingAndSorting pagination and sorting settings
+     * @param <ENTITY>         type of Entity
+     * @param <DTO>            type of DTO
+     * @return slice of Entities
+     */
+    public <ENTITY, DTO> Sheet<ENTITY> getSlice(DTO dto, PagingAndSorting pagingAndSorting) {
+        if (pagingAndSorting.isKeyset()) {
+            return getAll(dto, pagingAndSorting);
+        }
+        Specs<ENTITY> specs = processor.createSpecs(dto);
+        return toSlice(getAll(specs, pagingAndSorting, dto.getClass(), false, false, true), pagingAndSorting);
+    }
+
+    private static <E> Sheet<E> toSlice(List<E> content, PagingAndSorting pagingAndSorting) {
+        Integer pageSize = pagingAndSorting.getPageSize();
+        boolean hasNext = pageSize != null && content.size() > pageSize;
+        return new Sheet<>(hasNext ? new ArrayList<>(content.subList(0, pageSize)) : content,
+            pagingAndSorting, hasNext);
     }
 
     protected <ENTITY, DTO> List<ENTITY> getAll(Specs<ENTITY> specs, PagingAndSorting pagingAndSorting,
                                                 Class<DTO> dtoClass, boolean distinct) {
+        return getAll(specs, pagingAndSorting, dtoClass, distinct, false);
+    }
+
+    protected <ENTITY, DTO> List<ENTITY> getAll(Specs<ENTITY> specs, PagingAndSorting pagingAndSorting,
+                                                Class<DTO> dtoClass, boolean distinct, boolean fetch) {
+        return getAll(specs, pagingAndSorting, dtoClass, distinct, fetch, false);
+    }
+
+    /**
+     * Get list of Entities filtered, sorted and paginated
+     *
+     * @param specs            filtering specification
+     * @param pagingAndSorting pagination and sorting settings
+     * @param dtoClass         DTO class
+     * @param distinct         true to eliminate duplicates
+     * @param fetch            true to fetch relations the Entities will be converted into DTOs from
+     * @param lookahead        true to select one extra Entity after the page
+     * @param <ENTITY>         type of Entity
+     * @param <DTO>            type of DTO
+     * @return list of Entities
+     * @see FetchPlan
+     */
+    protected <ENTITY, DTO> List<ENTITY> getAll(Specs<ENTITY> specs, PagingAndSorting pagingAndSorting,
+                                                Class<DTO> dtoClass, boolean distinct, boolean fetch,
+                                                boolean lookahead) {
+        FetchPlan<ENTITY> fetchPlan = fetch ? getFetchPlan(dtoClass) : null;
+        TypedQuery<ENTITY> query = em.createQuery(
+            createSortedQuery(specs, pagingAndSorting.getSortings(), dtoClass, distinct, false));
+        setLoadGraph(query, fetchPlan);
+        applyQueryHints(query);
+        setPage(query, pagingAndSorting, lookahead);
+        List<ENTITY> entities = query.getResultList();
+        if (fetchPlan != null) {
+            fetchPlan.fetchCollections(em, entities);
+        }
+        return entities;
+    }
+
+    /**
+     * Get page of Entities selected by keyset: Entities following the row encoded in continuation token
+     * in the order of sortings and then primary key. The query selects one extra row to find out whether
+     * the next page exists, so continuation token of the last page is null. Projections are not used.
+     * <p>
+     * The predicate compares sort keys with the values of continuation token, nulls of the sort keys are
+     * ordered as specified by {@link EntityManagerRepository#setNullsFirst(boolean)}.
+     *
+     * @param specs            filtering specification
+     * @param pagingAndSorting keyset pagination and sorting settings
+     * @param dtoClass         DTO class
+     * @param distinct         true to eliminate duplicates
+     * @param fetch            true to fetch relations the Entities will be converted into DTOs from
+     * @param <ENTITY>         type of Entity
+     * @param <DTO>            type of DTO
+     * @return page of Entities
+     * @see PagingAndSorting#withKeyset(String, Integer)
+     */
+    protected <ENTITY, DTO> Sheet<ENTITY> getKeysetSheet(Specs<ENTITY> specs, PagingAndSorting pagingAndSorting,
+                                                         Class<DTO> dtoClass, boolean distinct, boolean fetch) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
         Class<ENTITY> entityClass = processor.getLink(dtoClass);
+        EntityType<ENTITY> entityType = em.getMetamodel().entity(entityClass);
+        if (!entityType.hasSingleIdAttribute()) {
+            throw new IllegalStateException("Keyset pagination requires single primary key attribute of "
+                + entityClass);
+        }
 
         CriteriaQuery<ENTITY> criteriaQuery = cb.createQuery(entityClass);
         Root<ENTITY> root = criteriaQuery.from(entityClass);
-        criteriaQuery.where(specs.buildPredicate(root, criteriaQuery, cb));
-        setDistinct(criteriaQuery, distinct);
+        List<String> paths = new ArrayList<>();
+        List<Path<?>> keys = new ArrayList<>();
+        List<Boolean> ascending = new ArrayList<>();
+        for (Map.Entry<String, Boolean> sorting : pagingAndSorting.getSortings().entrySet()) {
+            paths.add(processor.getPath(dtoClass, sorting.getKey()));
+            keys.add(processor.getJpaPath(dtoClass, sorting.getKey(), root, criteriaQuery, cb));
+            ascending.add(sorting.getValue());
+        }
+        // Primary key is the tie-breaker making the order total
+        keys.add(root.get(entityType.getId(entityType.getIdType().getJavaType())));
+        ascending.add(true);
+        Class<?>[] types = keys.stream().map(Path::getJavaType).toArray(Class<?>[]::new);
 
-        List<Order> orders = pagingAndSorting.getSortings().entrySet().stream()
-            .map(e -> {
-                Path<?> path = processor.getJpaPath(dtoClass, e.getKey(), root, criteriaQuery, cb);
-                return e.getValue() ? cb.asc(path) : cb.desc(path);
-            }).collect(Collectors.toList());
+        Predicate predicate = specs.buildPredicate(root, criteriaQuery, cb);
+        if (pagingAndSorting.getAfter() != null) {
+            predicate = cb.and(predicate,
+                createAfterPredicate(keys, ascending, Keyset.decode(pagingAndSorting.getAfter(), types)));
+        }
+        criteriaQuery.where(predicate);
+        setDistinct(criteriaQuery, distinct);
+        List<Order> orders = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            orders.add(ascending.get(i) ? cb.asc(keys.get(i)) : cb.desc(keys.get(i)));
+        }
         criteriaQuery.orderBy(orders);
 
+        FetchPlan<ENTITY> fetchPlan = fetch ? getFetchPlan(dtoClass) : null;
         TypedQuery<ENTITY> query = em.createQuery(criteriaQuery);
+        setLoadGraph(query, fetchPlan);
+        applyQueryHints(query);
+        Integer pageSize = pagingAndSorting.getPageSize();
+        if (pageSize != null) {
+            query.setMaxResults(pageSize + 1).setHint(FETCH_SIZE_HINT, pageSize + 1);
+        }
+        List<ENTITY> entities = query.getResultList();
+        String next = null;
+        if (pageSize != null && entities.size() > pageSize) {
+            entities = new ArrayList<>(entities.subList(0, pageSize));
+            ENTITY last = entities.get(pageSize - 1);
+            Object[] values = new Object[keys.size()];
+            for (int i = 0; i < paths.size(); i++) {
+                values[i] = getPathValue(last, paths.get(i));
+            }
+            values[paths.size()] = em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(last);
+            next = Keyset.encode(values);
+        }
+        if (fetchPlan != null) {
+            fetchPlan.fetchCollections(em, entities);
+        }
+        Long total = null;
+        if (pagingAndSorting.isCounted()) {
+            // The first page without next one holds all the Entities
+            total = pagingAndSorting.getAfter() == null && next == null
+                ? (long) entities.size() : createCountQuery(specs, dtoClass, distinct).getSingleResult();
+        }
+        return new Sheet<>(entities, total, pagingAndSorting, next);
+    }
+
+    /**
+     * Create predicate selecting rows following the row with specified values of the sort keys:
+     * {@code k1 > v1 or (k1 = v1 and k2 > v2) or ...}, with comparisons reversed for descending keys
+     *
+     * @param keys      sort keys
+     * @param ascending directions of the sort keys
+     * @param values    values of the sort keys
+     * @return predicate
+     */
+    @SuppressWarnings("unchecked")
+    protected Predicate createAfterPredicate(List<Path<?>> keys, List<Boolean> ascending, Object[] values) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalities = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            Expression<Comparable> key = (Expression<Comparable>) keys.get(i);
+            Comparable value = (Comparable) values[i];
+            boolean nullsAfter = ascending.get(i) != nullsFirst;
+            Predicate after;
+            if (value == null) {
+                after = nullsAfter ? null : cb.isNotNull(key);
+            } else {
+                after = ascending.get(i) ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+                after = nullsAfter ? cb.or(after, cb.isNull(key)) : after;
+            }
+            if (after != null) {
+                List<Predicate> alternative = new ArrayList<>(equalities);
+                alternative.add(after);
+                alternatives.add(cb.and(alternative.toArray(new Predicate[alternative.size()])));
+            }
+            equalities.add(value == null ? cb.isNull(key) : cb.equal(key, value));
+        }
+        return cb.or(alternatives.toArray(new Predicate[alternatives.size()]));
+    }
+
+    /**
+     * Read value of Entity's property by its dot-path, getter methods are preferred, so lazy relations
+     * are initialized
+     */
+    @SuppressWarnings("unchecked")
+    private static Object getPathValue(Object entity, String path) {
+        Object value = entity;
+        for (String name : path.split("\\.")) {
+            if (value == null) {
+                return null;
+            }
+            Method getter = ClassCache.getInstance().getGetterMethod(value.getClass(), name);
+            value = getter != null ? ClassCache.invoke(value, getter)
+                : ClassCache.getInstance().getProperty((Class<Object>) value.getClass(), name).getter().apply(value);
+        }
+        return value;
+    }
+
+    /**
+     * Count Entities of offset pagination if pagination settings require it. Count query is skipped
+     * if the page proves the total itself: it is shorter than the page size and isn't empty (unless it's the first
+     * page), so it holds the last Entities
+     *
+     * @param specs            filtering specification
+     * @param pagingAndSorting pagination settings
+     * @param dtoClass         DTO class
+     * @param distinct         true to count distinct Entities
+     * @param size             number of Entities on the page
+     * @param <ENTITY>         type of Entity
+     * @param <DTO>            type of DTO
+     * @return number of Entities or null if counting is skipped
+     */
+    protected <ENTITY, DTO> Long count(Specs<ENTITY> specs, PagingAndSorting pagingAndSorting, Class<DTO> dtoClass,
+                                       boolean distinct, int size) {
+        if (!pagingAndSorting.isCounted()) {
+            return null;
+        }
+        Long total = getProvenTotal(pagingAndSorting, size);
+        return total != null ? total : createCountQuery(specs, dtoClass, distinct).getSingleResult();
+    }
+
+    /**
+     * Get total number of Entities proven by the page of offset pagination,
+     * see {@link EntityManagerRepository#count(Specs, PagingAndSorting, Class, boolean, int)}
+     *
+     * @param pagingAndSorting pagination settings
+     * @param size             number of Entities on the page
+     * @return number of Entities or null if it must be counted
+     */
+    protected Long getProvenTotal(PagingAndSorting pagingAndSorting, int size) {
+        Integer pageSize = pagingAndSorting.getPageSize();
+        long offset = pagingAndSorting.getPage() == null || pageSize == null
+            ? 0 : (long) pagingAndSorting.getPage() * pageSize;
+        return (pageSize == null || size < pageSize) && (size > 0 || offset == 0) ? offset + size : null;
+    }
+
+    /**
+     * Set first and max results of the query by offset pagination settings
+     *
+     * @param query            query
+     * @param pagingAndSorting pagination settings
+     * @param lookahead        true to select one extra row after the page
+     */
+    protected void setPage(TypedQuery<?> query, PagingAndSorting pagingAndSorting, boolean lookahead) {
         if (pagingAndSorting.getPage() != null) {
             query.setFirstResult(pagingAndSorting.getPage() * pagingAndSorting.getPageSize());
         }
         if (pagingAndSorting.getPageSize() != null) {
-            query.setMaxResults(pagingAndSorting.getPageSize());
+            query.setMaxResults(pagingAndSorting.getPageSize() + (lookahead ? 1 : 0));
+        }
+    }
+
+    protected <ENTITY, DTO> List<DTO> getAllDTOs(Specs<ENTITY> specs, PagingAndSorting pagingAndSorting,
+                                                 Class<DTO> dtoClass, boolean distinct) {
+        return getAllDTOs(specs, pagingAndSorting, dtoClass, distinct, false);
+    }
+
+    /**
+     * Get list of DTOs filtered, sorted and paginated. DTOs are selected by projection query if projections
+     * are enabled and DTO can be projected, otherwise Entities are loaded and converted into DTOs.
+     *
+     * @param specs            filtering specification
+     * @param pagingAndSorting pagination and sorting settings
+     * @param dtoClass         DTO class
+     * @param distinct         true to eliminate duplicates
+     * @param lookahead        true to select one extra DTO after the page
+     * @param <ENTITY>         type of Entity
+     * @param <DTO>            type of DTO
+     * @return list of DTOs
+     * @see Processor#getProjection(Class)
+     */
+    protected <ENTITY, DTO> List<DTO> getAllDTOs(Specs<ENTITY> specs, PagingAndSorting pagingAndSorting,
+                                                 Class<DTO> dtoClass, boolean distinct, boolean lookahead) {
+        Projection<ENTITY, DTO> projection = useProjections ? processor.getProjection(dtoClass) : null;
+        if (projection == null) {
+            return processor.process(getAll(specs, pagingAndSorting, dtoClass, distinct, true, lookahead), dtoClass);
+        }
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = cb.createTupleQuery();
+        Root<ENTITY> root = criteriaQuery.from(projection.getEntityClass());
+        criteriaQuery.where(specs.buildPredicate(root, criteriaQuery, cb));
+        criteriaQuery.distinct(distinct);
+        criteriaQuery.orderBy(createOrders(pagingAndSorting.getSortings(), dtoClass, root, criteriaQuery, false));
+        projection.select(criteriaQuery, root, em);
+
+        TypedQuery<Tuple> query = em.createQuery(criteriaQuery);
+        setPage(query, pagingAndSorting, lookahead);
+        return projection.toDTOs(em, query.getResultList());
+    }
+
+    /**
+     * Get fetch plan of relations read while converting Entities into DTOs
+     *
+     * @param dtoClass DTO class
+     * @param <ENTITY> type of Entity
+     * @param <DTO>    type of DTO
+     * @return fetch plan or null if fetch plans are disabled or there is nothing to fetch
+     */
+    protected <ENTITY, DTO> FetchPlan<ENTITY> getFetchPlan(Class<DTO> dtoClass) {
+        if (!useFetchPlans) {
+            return null;
         }
-        return query.getResultList();
+        FetchPlan<ENTITY> fetchPlan = processor.getFetchPlan(dtoClass);
+        return fetchPlan == null || fetchPlan.isEmpty() ? null : fetchPlan;
+    }
+
+    protected <ENTITY> void setLoadGraph(TypedQuery<ENTITY> query, FetchPlan<ENTITY> fetchPlan) {
+        EntityGraph<ENTITY> graph = fetchPlan == null ? null : fetchPlan.createEntityGraph(em);
+        if (graph != null) {
+            query.setHint(FetchPlan.LOAD_GRAPH_HINT, graph);
+        }
+    }
+
+    /**
+     * Apply additional hints to the query of Entities which are read to be converted into DTOs.
+     * Does nothing by default, override to set e.g. provider-specific hints.
+     *
+     * @param query query of Entities
+     */
+    protected void applyQueryHints(TypedQuery<?> query) {
+    }
+
+    /**
+     * Create query of Entities filtered and sorted
+     *
+     * @param specs      filtering specification
+     * @param sortings   sortings: keys are DTO's property names, values are true for ascending order
+     * @param dtoClass   DTO class
+     * @param distinct   true to eliminate duplicates
+     * @param orderById  true to order by Entity's primary key after specified sortings, so the order is stable
+     *                   between the chunks
+     * @param <ENTITY>   type of Entity
+     * @param <DTO>      type of DTO
+     * @return criteria query
+     */
+    protected <ENTITY, DTO> CriteriaQuery<ENTITY> createSortedQuery(Specs<ENTITY> specs, Map<String, Boolean> sortings,
+                                                                    Class<DTO> dtoClass, boolean distinct,
+                                                                    boolean orderById) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        Class<ENTITY> entityClass = processor.getLink(dtoClass);
+
+        CriteriaQuery<ENTITY> criteriaQuery = cb.createQuery(entityClass);
+        Root<ENTITY> root = criteriaQuery.from(entityClass);
+        criteriaQuery.where(specs.buildPredicate(root, criteriaQuery, cb));
+        setDistinct(criteriaQuery, distinct);
+        criteriaQuery.orderBy(createOrders(sortings, dtoClass, root, criteriaQuery, orderById));
+        return criteriaQuery;
+    }
+
+    protected <ENTITY, DTO> List<Order> createOrders(Map<String, Boolean> sortings, Class<DTO> dtoClass,
+                                                     Root<ENTITY> root, CriteriaQuery<?> criteriaQuery,
+                                                     boolean orderById) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        List<Order> orders = sortings.entrySet().stream()
+            .map(e -> {
+                Path<?> path = processor.getJpaPath(dtoClass, e.getKey(), root, criteriaQuery, cb);
+                return e.getValue() ? cb.asc(path) : cb.desc(path);
+            }).collect(Collectors.toCollection(ArrayList::new));
+        if (orderById) {
+            EntityType<ENTITY> entityType = em.getMetamodel().entity(processor.<ENTITY, DTO>getLink(dtoClass));
+            if (entityType.hasSingleIdAttribute()) {
+                orders.add(cb.asc(root.get(entityType.getId(entityType.getIdType().getJavaType()))));
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Stream Entities converted into DTOs by specified filters map and DTO class. Entities are read lazily
+     * in chunks of {@link EntityManagerRepository#getChunkSize()} records (with JDBC fetch size hint), ordered
+     * by specified sortings and then by primary key. Each chunk is selected by keyset, i.e. rows following
+     * the last row of the previous chunk (see {@link EntityManagerRepository#getKeysetSheet}), so reading
+     * of the last chunk costs as much as reading of the first one. Nulls of nullable sort keys must be ordered
+     * as configured by {@link EntityManagerRepository#setNullsFirst(boolean)}. Entities with composite primary keys
+     * are read using offset pagination instead.
+     * <p>
+     * Each chunk is converted into DTOs right after reading, then its Entities and their relations read by
+     * DTO's links are detached from the {@link EntityManager} (see {@link FetchPlan#detach(EntityManager, List)}),
+     * so the persistence context doesn't keep them. Unflushed changes of the detached Entities are lost,
+     * so flush them before streaming. Other managed Entities are left as they are.
+     * Records inserted, updated or deleted concurrently may be skipped or read twice.
+     *
+     * @param filters  filters map
+     * @param sorting  sorting settings, pagination is ignored
+     * @param dtoClass DTO class
+     * @param <DTO>    type of DTO
+     * @return lazy ordered stream of DTOs
+     * @see Processor#createSpecs(Map, Class)
+     */
+    public <ENTITY, DTO> Stream<DTO> stream(Map<String, Filter> filters, PagingAndSorting sorting,
+                                           Class<DTO> dtoClass) {
+        Specs<ENTITY> specs = processor.createSpecs(filters, dtoClass);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+            new ChunkIterator<>(specs, sorting.getSortings(), dtoClass), Spliterator.ORDERED | Spliterator.NONNULL),
+            false);
+    }
+
+    /**
+     * Perform an action for each Entity converted into DTO by specified filters map and DTO class,
+     * reading Entities in chunks
+     *
+     * @param filters  filters map
+     * @param sorting  sorting settings, pagination is ignored
+     * @param dtoClass DTO class
+     * @param action   action for each DTO
+     * @param <DTO>    type of DTO
+     * @see EntityManagerRepository#stream(Map, PagingAndSorting, Class)
+     */
+    public <DTO> void forEach(Map<String, Filter> filters, PagingAndSorting sorting, Class<DTO> dtoClass,
+                              Consumer<? super DTO> action) {
+        stream(filters, sorting, dtoClass).forEach(action);
+    }
+
+    /**
+     * Iterator reading Entities chunk by chunk and converting them into DTOs
+     */
+    private class ChunkIterator<ENTITY, DTO> implements Iterator<DTO> {
+
+        private final Specs<ENTITY> specs;
+        private final Map<String, Boolean> sortings;
+        private final Class<DTO> dtoClass;
+        private final boolean keyset;
+        private Iterator<DTO> chunk = Collections.emptyIterator();
+        private String after;
+        private int offset;
+        private boolean last;
+
+        private ChunkIterator(Specs<ENTITY> specs, Map<String, Boolean> sortings, Class<DTO> dtoClass) {
+            this.specs = specs;
+            this.sortings = new LinkedHashMap<>(sortings);
+            this.dtoClass = dtoClass;
+            this.keyset = em.getMetamodel().entity(processor.getLink(dtoClass)).hasSingleIdAttribute();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!chunk.hasNext() && !last) {
+                readChunk();
+            }
+            return chunk.hasNext();
+        }
+
+        @Override
+        public DTO next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return chunk.next();
+        }
+
+        private void readChunk() {
+            List<ENTITY> entities;
+            if (keyset) {
+                PagingAndSorting paging = new PagingAndSorting().withKeyset(after, chunkSize).withoutCount();
+                paging.setSortings(sortings);
+                Sheet<ENTITY> sheet = getKeysetSheet(specs, paging, dtoClass, false, true);
+                entities = sheet.getContent();
+                after = sheet.getNext();
+                last = after == null;
+            } else {
+                FetchPlan<ENTITY> fetchPlan = getFetchPlan(dtoClass);
+                TypedQuery<ENTITY> query = em.createQuery(createSortedQuery(specs, sortings, dtoClass, false, true))
+                    .setFirstResult(offset)
+                    .setMaxResults(chunkSize)
+                    .setHint(FETCH_SIZE_HINT, chunkSize);
+                setLoadGraph(query, fetchPlan);
+                applyQueryHints(query);
+                entities = query.getResultList();
+                offset += entities.size();
+                last = entities.size() < chunkSize;
+                if (fetchPlan != null) {
+                    fetchPlan.fetchCollections(em, entities);
+                }
+            }
+            chunk = processor.process(entities, dtoClass).iterator();
+            // Relations read while mapping are detached as well, fetched by the plan or loaded lazily
+            FetchPlan<ENTITY> relations = processor.getFetchPlan(dtoClass);
+            if (relations != null) {
+                relations.detach(em, entities);
+            } else {
+                entities.forEach(em::detach);
+            }
+        }
+    }
+
+    /**
+     * Create Entities from DTOs and persist them in chunks of {@link EntityManagerRepository#getChunkSize()} DTOs.
+     * After each chunk the {@link EntityManager} is flushed and cleared, so the persistence context doesn't grow
+     * and inserts of the chunk are sent together: enable Hibernate JDBC batching ({@code hibernate.jdbc.batch_size})
+     * and insert ordering ({@code hibernate.order_inserts}) to send them as JDBC batches. Inserts of Entities
+     * with {@code IDENTITY} generated primary keys can't be batched.
+     * Relations looked up by primary keys are resolved once per chunk, see
+     * {@link Processor#createAll(List, RelationBatch)}.
+     * <p>
+     * Must be called within transaction. Clearing detaches <b>all</b> the Entities managed by the
+     * {@link EntityManager}, so use dedicated {@link EntityManager} or don't rely on previously loaded Entities.
+     *
+     * @param dtos  DTOs
+     * @param <DTO> type of DTO
+     * @return number of created Entities
+     * @see EntityManagerRepository#setChunkListener(Consumer)
+     */
+    public <DTO> long createAll(Iterable<DTO> dtos) {
+        return writeAll(dtos, chunk -> {
+            List<Object> entities = processor.createAll(chunk, new RelationBatch());
+            entities.stream().filter(Objects::nonNull).forEach(em::persist);
+            return chunk.size() - Collections.frequency(entities, null);
+        });
+    }
+
+    /**
+     * Update Entities with data from DTOs in chunks of {@link EntityManagerRepository#getChunkSize()} DTOs.
+     * Entities of each chunk are found by primary keys of the DTOs with single query, after each chunk
+     * the {@link EntityManager} is flushed and cleared, see {@link EntityManagerRepository#createAll(Iterable)}.
+     * Enable Hibernate update ordering ({@code hibernate.order_updates}) to send updates as JDBC batches.
+     *
+     * @param dtos       DTOs of the same class
+     * @param primaryKey function extracting primary key of the Entity to update from DTO
+     * @param <ENTITY>   type of Entity
+     * @param <DTO>      type of DTO
+     * @return number of updated Entities, DTOs without corresponding Entity are skipped
+     * @see EntityManagerRepository#setChunkListener(Consumer)
+     */
+    public <ENTITY, DTO> long updateAll(Iterable<DTO> dtos, Function<? super DTO, ?> primaryKey) {
+        return writeAll(dtos, chunk -> {
+            List<DTO> found = new ArrayList<>(chunk.size());
+            chunk.stream().filter(Objects::nonNull).forEach(found::add);
+            if (found.isEmpty()) {
+                return 0;
+            }
+            Class<ENTITY> entityClass = processor.getLink(found.get(0).getClass());
+            Map<Object, ENTITY> entitiesByKey = findAll(entityClass,
+                found.stream().map(primaryKey).collect(Collectors.toList()));
+            List<ENTITY> entities = new ArrayList<>(found.size());
+            found.removeIf(dto -> !entitiesByKey.containsKey(primaryKey.apply(dto)));
+            found.forEach(dto -> entities.add(entitiesByKey.get(primaryKey.apply(dto))));
+            processor.mergeAll(entities, found, new RelationBatch());
+            return entities.size();
+        });
+    }
+
+    /**
+     * Find Entities by primary keys using IN queries of at most {@link RelationBatch#MAX_IN_SIZE} keys
+     *
+     * @param entityClass Entity class
+     * @param primaryKeys primary keys
+     * @param <ENTITY>    type of Entity
+     * @return found Entities by primary key
+     */
+    protected <ENTITY> Map<Object, ENTITY> findAll(Class<ENTITY> entityClass, Collection<?> primaryKeys) {
+        EntityType<ENTITY> entityType = em.getMetamodel().entity(entityClass);
+        PersistenceUnitUtil util = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        List<Object> keys = new ArrayList<>(new LinkedHashSet<>(primaryKeys));
+        keys.remove(null);
+        Map<Object, ENTITY> result = new HashMap<>();
+        for (int from = 0; from < keys.size(); from += RelationBatch.MAX_IN_SIZE) {
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            CriteriaQuery<ENTITY> query = cb.createQuery(entityClass);
+            Root<ENTITY> root = query.from(entityClass);
+            query.where(root.get(entityType.getId(entityType.getIdType().getJavaType()))
+                .in(keys.subList(from, Math.min(from + RelationBatch.MAX_IN_SIZE, keys.size()))));
+            em.createQuery(query).getResultList().forEach(entity -> result.put(util.getIdentifier(entity), entity));
+        }
+        return result;
+    }
+
+    /**
+     * Write DTOs chunk by chunk: flush and clear {@link EntityManager} after each chunk and report its metrics
+     *
+     * @param dtos   DTOs
+     * @param writer function writing the chunk of DTOs and returning number of written Entities
+     * @param <DTO>  type of DTO
+     * @return total number of written Entities
+     */
+    protected <DTO> long writeAll(Iterable<DTO> dtos, Function<List<DTO>, Integer> writer) {
+        long total = 0;
+        int chunk = 0;
+        List<DTO> buffer = new ArrayList<>(chunkSize);
+        Iterator<DTO> iterator = dtos.iterator();
+        while (iterator.hasNext()) {
+            buffer.add(iterator.next());
+            if (buffer.size() == chunkSize || !iterator.hasNext()) {
+                long start = System.nanoTime();
+                int size = writer.apply(buffer);
+                em.flush();
+                em.clear();
+                total += size;
+                if (chunkListener != null) {
+                    chunkListener.accept(new ChunkMetrics(chunk, size, total, System.nanoTime() - start));
+                }
+                chunk++;
+                buffer.clear();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Update all the Entities matching specified filters map and DTO class with single {@code UPDATE} statement,
+     * without loading them. Values are assigned by DTO's property names translated into Entity's paths
+     * (see {@link Processor#getPath(Class, String)}), the path may end with a basic or embedded property,
+     * a single-valued relation or its primary key (then relation's reference is assigned).
+     * Paths through relations to other properties can't be updated.
+     * <p>
+     * Must be called within transaction. The statement bypasses the persistence context: already loaded Entities
+     * are not refreshed, versions are not incremented and entity listeners are not called.
+     * If filters need joins, Entities are matched by primary keys selected with the joining subquery
+     * (some databases, e.g. MySQL, don't allow the subquery to read the updated table).
+     *
+     * @param filters  filters map
+     * @param dtoClass DTO class
+     * @param values   new values: keys are names of properties of DTO class
+     * @param <DTO>    type of DTO
+     * @return number of updated Entities
+     * @see Processor#createSpecs(Map, Class)
+     */
+    public <DTO> int updateAll(Map<String, Filter> filters, Class<DTO> dtoClass, Map<String, ?> values) {
+        return updateAll(processor.createSpecs(filters, dtoClass), dtoClass, values);
+    }
+
+    /**
+     * Update all the Entities matching specified filtering DTO with single {@code UPDATE} statement,
+     * see {@link EntityManagerRepository#updateAll(Map, Class, Map)}
+     *
+     * @param dto    filtering DTO
+     * @param values new values: keys are names of properties of filtering DTO's class
+     * @param <DTO>  type of DTO
+     * @return number of updated Entities
+     */
+    public <DTO> int updateAll(DTO dto, Map<String, ?> values) {
+        return updateAll(processor.createSpecs(dto), dto.getClass(), values);
+    }
+
+    protected <ENTITY, DTO> int updateAll(Specs<ENTITY> specs, Class<DTO> dtoClass, Map<String, ?> values) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        Class<ENTITY> entityClass = processor.getLink(dtoClass);
+
+        CriteriaUpdate<ENTITY> update = cb.createCriteriaUpdate(entityClass);
+        Root<ENTITY> root = update.from(entityClass);
+        Predicate predicate = createBulkPredicate(specs, root);
+        if (predicate == null) {
+            // Filters have joined the root, the statement must not have them
+            update = cb.createCriteriaUpdate(entityClass);
+            root = update.from(entityClass);
+            predicate = createIdPredicate(specs, entityClass, update, root);
+        }
+        update.where(predicate);
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            set(update, root, processor.getPath(dtoClass, entry.getKey()), entry.getValue());
+        }
+        return em.createQuery(update).executeUpdate();
+    }
+
+    /**
+     * Delete all the Entities matching specified filters map and DTO class with single {@code DELETE} statement,
+     * without loading them. If filters need joins, Entities are matched by primary keys selected
+     * with the joining subquery, see {@link EntityManagerRepository#updateAll(Map, Class, Map)}.
+     * <p>
+     * Must be called within transaction. The statement bypasses the persistence context: cascades, orphan removal
+     * and entity listeners are not applied, already loaded Entities are not detached.
+     * Rows referencing deleted Entities (including join tables of their collections) must be deleted beforehand
+     * or by the database's {@code ON DELETE} rules.
+     *
+     * @param filters  filters map
+     * @param dtoClass DTO class
+     * @param <DTO>    type of DTO
+     * @return number of deleted Entities
+     * @see Processor#createSpecs(Map, Class)
+     */
+    public <DTO> int deleteAll(Map<String, Filter> filters, Class<DTO> dtoClass) {
+        return deleteAll(processor.createSpecs(filters, dtoClass), dtoClass);
+    }
+
+    /**
+     * Delete all the Entities matching specified filtering DTO with single {@code DELETE} statement,
+     * see {@link EntityManagerRepository#deleteAll(Map, Class)}
+     *
+     * @param dto   filtering DTO
+     * @param <DTO> type of DTO
+     * @return number of deleted Entities
+     */
+    public <DTO> int deleteAll(DTO dto) {
+        return deleteAll(processor.createSpecs(dto), dto.getClass());
+    }
+
+    protected <ENTITY, DTO> int deleteAll(Specs<ENTITY> specs, Class<DTO> dtoClass) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        Class<ENTITY> entityClass = processor.getLink(dtoClass);
+
+        CriteriaDelete<ENTITY> delete = cb.createCriteriaDelete(entityClass);
+        Root<ENTITY> root = delete.from(entityClass);
+        Predicate predicate = createBulkPredicate(specs, root);
+        if (predicate == null) {
+            // Filters have joined the root, the statement must not have them
+            delete = cb.createCriteriaDelete(entityClass);
+            root = delete.from(entityClass);
+            predicate = createIdPredicate(specs, entityClass, delete, root);
+        }
+        delete.where(predicate);
+        return em.createQuery(delete).executeUpdate();
+    }
+
+    /**
+     * Build predicate of bulk statement (update or delete) on its root. Specification is given throwaway criteria
+     * query, so specifications of bulk statements must not modify the query they get.
+     *
+     * @param specs    filtering specification
+     * @param root     root of the bulk statement
+     * @param <ENTITY> type of Entity
+     * @return predicate or null if specification joins the root, then
+     * {@link EntityManagerRepository#createIdPredicate(Specs, Class, CommonAbstractCriteria, Root)} must be used
+     * with new statement
+     */
+    protected <ENTITY> Predicate createBulkPredicate(Specs<ENTITY> specs, Root<ENTITY> root) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        Predicate predicate = specs.buildPredicate(root, cb.createQuery(), cb);
+        return root.getJoins().isEmpty() ? predicate : null;
+    }
+
+    /**
+     * Build predicate matching primary keys of the bulk statement's root with primary keys selected by
+     * the subquery filtered by specification, so the specification may join relations
+     *
+     * @param specs       filtering specification
+     * @param entityClass Entity class
+     * @param statement   bulk statement
+     * @param root        root of the bulk statement
+     * @param <ENTITY>    type of Entity
+     * @return predicate
+     */
+    protected <ENTITY> Predicate createIdPredicate(Specs<ENTITY> specs, Class<ENTITY> entityClass,
+                                                   CommonAbstractCriteria statement, Root<ENTITY> root) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        EntityType<ENTITY> entityType = em.getMetamodel().entity(entityClass);
+        if (!entityType.hasSingleIdAttribute()) {
+            throw new IllegalStateException("Bulk statement with joins requires single primary key attribute of "
+                + entityClass);
+        }
+        SingularAttribute<? super ENTITY, ?> id = entityType.getId(entityType.getIdType().getJavaType());
+        Subquery<Object> subquery = statement.subquery(Object.class);
+        Root<ENTITY> subqueryRoot = subquery.from(entityClass);
+        subquery.select((Path) subqueryRoot.get(id)).where(specs.buildPredicate(subqueryRoot, cb.createQuery(), cb));
+        return root.get(id).in(subquery);
+    }
+
+    /**
+     * Assign value to Entity's property by its dot-path within update statement
+     *
+     * @param update     update statement
+     * @param root       root of the update statement
+     * @param entityPath Entity's property dot-path
+     * @param value      value, converted like filter values (see {@link SimpleConverter})
+     * @param <ENTITY>   type of Entity
+     */
+    protected <ENTITY> void set(CriteriaUpdate<ENTITY> update, Root<ENTITY> root, String entityPath, Object value) {
+        String[] names = entityPath.split("\\.");
+        Path path = root;
+        ManagedType<?> type = em.getMetamodel().managedType(root.getJavaType());
+        for (int i = 0; i < names.length; i++) {
+            Attribute<?, ?> attribute = type.getAttribute(names[i]);
+            if (attribute.isCollection()) {
+                throw new IllegalArgumentException("Can't update collection " + entityPath + " of "
+                    + root.getJavaType());
+            }
+            if (attribute.isAssociation() && i < names.length - 1) {
+                // Only the foreign key belongs to the updated table
+                if (i != names.length - 2 || !isId(attribute.getJavaType(), names[i + 1])) {
+                    throw new IllegalArgumentException("Can't update " + entityPath + " of " + root.getJavaType()
+                        + " through relation " + names[i]);
+                }
+                update.set(path.get(names[i]), value == null ? null : em.getReference(attribute.getJavaType(), value));
+                return;
+            }
+            path = path.get(names[i]);
+            if (i < names.length - 1) {
+                type = em.getMetamodel().managedType(attribute.getJavaType());
+            }
+        }
+        update.set(path, value == null ? null : new SimpleConverter(path).convert(value));
+    }
+
+    private boolean isId(Class<?> entityClass, String name) {
+        Attribute<?, ?> attribute = em.getMetamodel().entity(entityClass).getAttribute(name);
+        return attribute instanceof SingularAttribute && ((SingularAttribute) attribute).isId();
     }
 
     protected <ENTITY> void setDistinct(CriteriaQuery<ENTITY> query, boolean distinct) {
@@ -228,9 +1068,15 @@ public class EntityManagerRepository {
      */
     public <DTO> DTO getOne(Map<String, Filter> filters, Class<DTO> dtoClass) {
         try {
-            return processor.process(
-                createQuery(processor.createSpecs(filters, dtoClass), dtoClass, true).getSingleResult(),
-                dtoClass);
+            FetchPlan<Object> fetchPlan = getFetchPlan(dtoClass);
+            TypedQuery<Object> query = createQuery(processor.createSpecs(filters, dtoClass), dtoClass, true);
+            setLoadGraph(query, fetchPlan);
+            applyQueryHints(query);
+            Object entity = query.getSingleResult();
+            if (fetchPlan != null) {
+                fetchPlan.fetchCollections(em, Collections.singletonList(entity));
+            }
+            return processor.process(entity, dtoClass);
         } catch (NoResultException ex) {
             return null;
         }
@@ -252,12 +1098,83 @@ public class EntityManagerRepository {
         }
     }
 
+    /**
+     * Check if any Entity matches specified filters map and DTO class, selecting at most one primary key
+     *
+     * @param filters  filters map
+     * @param dtoClass DTO class
+     * @param <DTO>    type of DTO
+     * @return true if there is at least one Entity
+     * @see Processor#createSpecs(Map, Class)
+     */
     public <DTO> boolean exists(Map<String, Filter> filters, Class<DTO> dtoClass) {
-        return count(filters, dtoClass) > 0;
+        return countUpTo(filters, dtoClass, 1) > 0;
     }
 
+    /**
+     * Check if any Entity matches specified filtering DTO, selecting at most one primary key
+     *
+     * @param dto   DTO
+     * @param <DTO> type of DTO
+     * @return true if there is at least one Entity
+     */
     public <DTO> boolean exists(DTO dto) {
-        return count(dto) > 0;
+        return countUpTo(dto, 1) > 0;
+    }
+
+    /**
+     * Count distinct Entities by specified filters map and DTO class, but no more than the limit: at most
+     * {@code limit} distinct primary keys are selected, so matching records are not scanned after the limit is
+     * reached. Unlike {@link EntityManagerRepository#count(Map, Class)}, Entity matched through several rows
+     * of joined to-many relation is counted once.
+     *
+     * @param filters  filters map
+     * @param dtoClass DTO class
+     * @param limit    maximum number to count
+     * @param <DTO>    type of DTO
+     * @return number of Entities or the limit if there are more of them
+     * @see Processor#createSpecs(Map, Class)
+     */
+    public <DTO> int countUpTo(Map<String, Filter> filters, Class<DTO> dtoClass, int limit) {
+        return createKeyQuery(processor.createSpecs(filters, dtoClass), dtoClass)
+            .setMaxResults(limit).getResultList().size();
+    }
+
+    /**
+     * Count distinct Entities by specified filtering DTO, but no more than the limit, see
+     * {@link EntityManagerRepository#countUpTo(Map, Class, int)}
+     *
+     * @param dto   DTO
+     * @param limit maximum number to count
+     * @param <DTO> type of DTO
+     * @return number of Entities or the limit if there are more of them
+     */
+    public <DTO> int countUpTo(DTO dto, int limit) {
+        return createKeyQuery(processor.createSpecs(dto), dto.getClass()).setMaxResults(limit).getResultList().size();
+    }
+
+    /**
+     * Create query of the distinct primary keys of filtered Entities (or Entities themselves if primary key
+     * is composite)
+     *
+     * @param specs    filtering specification
+     * @param dtoClass DTO class
+     * @param <ENTITY> type of Entity
+     * @param <DTO>    type of DTO
+     * @return query
+     */
+    protected <ENTITY, DTO> TypedQuery<Object> createKeyQuery(Specs<ENTITY> specs, Class<DTO> dtoClass) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        Class<ENTITY> entityClass = processor.getLink(dtoClass);
+        EntityType<ENTITY> entityType = em.getMetamodel().entity(entityClass);
+
+        CriteriaQuery<Object> query = cb.createQuery(Object.class);
+        Root<ENTITY> root = query.from(entityClass);
+        query.select(entityType.hasSingleIdAttribute()
+            ? root.get(entityType.getId(entityType.getIdType().getJavaType())) : root);
+        query.where(specs.buildPredicate(root, query, cb));
+        query.distinct(true);
+        return em.createQuery(query);
     }
 
     protected <ENTITY, DTO> TypedQuery<ENTITY> createQuery(Specs<ENTITY> specs, Class<DTO> dtoClass, boolean distinct) {
@@ -306,4 +1223,62 @@ public class EntityManagerRepository {
     public void setEm(EntityManager em) {
         this.em = em;
     }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public Consumer<ChunkMetrics> getChunkListener() {
+        return chunkListener;
+    }
+
+    /**
+     * @param chunkListener listener receiving metrics of each chunk written by bulk operations, nullable
+     */
+    public void setChunkListener(Consumer<ChunkMetrics> chunkListener) {
+        this.chunkListener = chunkListener;
+    }
+
+    public boolean isNullsFirst() {
+        return nullsFirst;
+    }
+
+    /**
+     * @param nullsFirst how the database orders nulls for keyset pagination: true if nulls precede other values
+     *                   in ascending order (H2, MySQL, SQL Server), false (default) if they follow them
+     *                   (PostgreSQL, Oracle)
+     */
+    public void setNullsFirst(boolean nullsFirst) {
+        this.nullsFirst = nullsFirst;
+    }
+
+    public boolean isUseProjections() {
+        return useProjections;
+    }
+
+    /**
+     * @param useProjections true to select paged DTOs by projection query, without loading Entities,
+     *                       whenever DTO can be projected; false (default) to convert loaded Entities
+     * @see Projection
+     */
+    public void setUseProjections(boolean useProjections) {
+        this.useProjections = useProjections;
+    }
+
+    public boolean isUseFetchPlans() {
+        return useFetchPlans;
+    }
+
+    /**
+     * @param useFetchPlans true to fetch relations read by DTO's links together with the Entities
+     *                      converted into DTOs, false (default) to leave them lazy
+     * @see FetchPlan
+     */
+    public void setUseFetchPlans(boolean useFetchPlans) {
+        this.useFetchPlans = useFetchPlans;
+    }
 }
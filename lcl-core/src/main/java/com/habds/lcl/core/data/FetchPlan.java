@@ -0,0 +1,332 @@
+package com.habds.lcl.core.data;
+
+import com.habds.lcl.core.annotation.Contains;
+import com.habds.lcl.core.annotation.Ignored;
+import com.habds.lcl.core.processor.Processor;
+import com.habds.lcl.core.processor.RelationBatch;
+import com.habds.lcl.core.processor.impl.MappingMetadata;
+import com.habds.lcl.core.processor.impl.util.ClassCache;
+
+import javax.persistence.*;
+import javax.persistence.criteria.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Fetch plan of the Entity derived from {@link com.habds.lcl.core.annotation.Link} paths of the DTO
+ * and its nested DTOs. Contains all the relations ({@link ManyToOne}, {@link OneToOne}, {@link OneToMany},
+ * {@link ManyToMany} and {@link ElementCollection} fields) that will be read while mapping Entities into DTOs.
+ * <p>
+ * Relations reachable through single-valued associations only are fetched together: as a load graph
+ * of the Entity query (see {@link FetchPlan#createEntityGraph(EntityManager)}) or by a single secondary query.
+ * Each collection is fetched by its own secondary query for the whole list of Entities, so the page is neither
+ * multiplied by the collection sizes nor paginated in memory. Relations under the second collection
+ * of the path are left lazy. So list of Entities is loaded in a bounded number of queries
+ * instead of one query per Entity per relation.
+ * <p>
+ * Relations are detected by the mapping annotations of Entity's fields only: relations of Entities
+ * using property access (annotated getters) and relations inside embeddables are not fetched and stay lazy.
+ *
+ * @param <ENTITY> type of Entity
+ * @version 1
+ * @since 10/18/26 4:28 PM
+ */
+@SuppressWarnings("unchecked")
+public class FetchPlan<ENTITY> {
+
+    public static final String LOAD_GRAPH_HINT = "javax.persistence.loadgraph";
+
+    private final Class<ENTITY> entityClass;
+    private final Node singleValued = new Node();
+    private final Map<String, Node> collections = new LinkedHashMap<>();
+    // All the relations read by the links, including the ones left lazy, except for element collections
+    private final Node relations = new Node();
+    private final Set<String> paths = new LinkedHashSet<>();
+
+    private FetchPlan(Class<ENTITY> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    /**
+     * Derive fetch plan from DTO's links
+     *
+     * @param processor processor knowing the nested DTOs
+     * @param dtoClass  DTO class
+     * @param <ENTITY>  type of Entity
+     * @param <DTO>     type of DTO
+     * @return fetch plan of DTO's Entity
+     */
+    public static <ENTITY, DTO> FetchPlan<ENTITY> of(Processor processor, Class<DTO> dtoClass) {
+        FetchPlan<ENTITY> plan = new FetchPlan<>(processor.getLink(dtoClass));
+        Set<Class> visited = new HashSet<>();
+        visited.add(dtoClass);
+        plan.addDto(processor, new ArrayList<>(), plan.entityClass, dtoClass, visited);
+        return plan;
+    }
+
+    private void addDto(Processor processor, List<Segment> prefix, Class<?> entityClass, Class<?> dtoClass,
+                        Set<Class> visited) {
+        for (Field dtoField : ClassCache.getInstance().getAllFields(dtoClass).values()) {
+            if (dtoField.getAnnotation(Ignored.class) != null) {
+                continue;
+            }
+            List<Segment> chain = new ArrayList<>(prefix);
+            Class<?> currentClass = entityClass;
+            boolean relationPath = true;
+            for (String name : MappingMetadata.toDotPath(dtoField).split("\\.")) {
+                Field field = ClassCache.getInstance().getAllFields(currentClass).get(name);
+                if (field == null || !isRelation(field)) {
+                    relationPath = false;
+                    break;
+                }
+                boolean collection = isCollection(field);
+                chain.add(new Segment(name, collection, field.getAnnotation(ElementCollection.class) != null));
+                currentClass = collection ? elementType(field) : field.getType();
+            }
+            add(chain);
+
+            // Nested DTOs are mapped from the relation the link points to
+            Class<?> nestedDto = nestedDto(processor, dtoField);
+            if (relationPath && chain.size() > prefix.size() && nestedDto != null && visited.add(nestedDto)) {
+                addDto(processor, chain, currentClass, nestedDto, visited);
+                visited.remove(nestedDto);
+            }
+        }
+    }
+
+    private static Class<?> nestedDto(Processor processor, Field dtoField) {
+        Class<?> type = dtoField.getType();
+        if (Collection.class.isAssignableFrom(type) && dtoField.getAnnotation(Contains.class) != null) {
+            type = dtoField.getAnnotation(Contains.class).value();
+        }
+        return processor.isProcessable(type) ? type : null;
+    }
+
+    static boolean isRelation(Field field) {
+        return field.getAnnotation(ManyToOne.class) != null || field.getAnnotation(OneToOne.class) != null
+            || isCollection(field);
+    }
+
+    static boolean isCollection(Field field) {
+        return field.getAnnotation(OneToMany.class) != null || field.getAnnotation(ManyToMany.class) != null
+            || field.getAnnotation(ElementCollection.class) != null;
+    }
+
+    private static Class<?> elementType(Field field) {
+        Type type = field.getGenericType();
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (arguments[arguments.length - 1] instanceof Class) {
+                return (Class<?>) arguments[arguments.length - 1];
+            }
+        }
+        return Object.class;
+    }
+
+    private void add(List<Segment> chain) {
+        Node relation = relations;
+        for (Segment segment : chain) {
+            // Element collections hold values owned by the Entity, not other Entities
+            if (segment.values) {
+                break;
+            }
+            relation = relation.children.computeIfAbsent(segment.name, n -> new Node());
+        }
+
+        int firstCollection = -1;
+        for (int i = 0; i < chain.size(); i++) {
+            if (chain.get(i).collection) {
+                firstCollection = i;
+                break;
+            }
+        }
+        if (firstCollection < 0) {
+            add(singleValued, chain);
+            return;
+        }
+        add(singleValued, chain.subList(0, firstCollection));
+
+        // Collection is fetched with single-valued relations of its elements only
+        int end = firstCollection + 1;
+        while (end < chain.size() && !chain.get(end).collection) {
+            end++;
+        }
+        List<Segment> collectionChain = chain.subList(0, end);
+        String key = toPath(chain.subList(0, firstCollection + 1));
+        add(collections.computeIfAbsent(key, k -> new Node()), collectionChain);
+    }
+
+    private void add(Node node, List<Segment> chain) {
+        for (int i = 0; i < chain.size(); i++) {
+            node = node.children.computeIfAbsent(chain.get(i).name, n -> new Node());
+            paths.add(toPath(chain.subList(0, i + 1)));
+        }
+    }
+
+    private static String toPath(List<Segment> chain) {
+        StringJoiner joiner = new StringJoiner(".");
+        chain.forEach(segment -> joiner.add(segment.name));
+        return joiner.toString();
+    }
+
+    public Class<ENTITY> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return dot-paths of all the relations to be fetched
+     */
+    public Set<String> getPaths() {
+        return Collections.unmodifiableSet(paths);
+    }
+
+    public boolean isEmpty() {
+        return paths.isEmpty();
+    }
+
+    public boolean hasCollections() {
+        return !collections.isEmpty();
+    }
+
+    /**
+     * Create load graph fetching relations reachable through single-valued associations,
+     * to be used as {@link FetchPlan#LOAD_GRAPH_HINT} of the Entity query
+     *
+     * @param em entity manager
+     * @return entity graph or null if there is nothing to fetch
+     */
+    public EntityGraph<ENTITY> createEntityGraph(EntityManager em) {
+        if (singleValued.children.isEmpty()) {
+            return null;
+        }
+        EntityGraph<ENTITY> graph = em.createEntityGraph(entityClass);
+        addToGraph(singleValued, graph::addSubgraph, graph::addAttributeNodes);
+        return graph;
+    }
+
+    private static void addToGraph(Node node, Function<String, Subgraph<?>> addSubgraph,
+                                   Consumer<String> addAttribute) {
+        node.children.forEach((name, child) -> {
+            if (child.children.isEmpty()) {
+                addAttribute.accept(name);
+            } else {
+                Subgraph<?> subgraph = addSubgraph.apply(name);
+                addToGraph(child, subgraph::addSubgraph, subgraph::addAttributeNodes);
+            }
+        });
+    }
+
+    /**
+     * Fetch all the relations of already loaded Entities using secondary queries
+     *
+     * @param em       entity manager the Entities are managed by
+     * @param entities loaded Entities
+     */
+    public void fetch(EntityManager em, List<ENTITY> entities) {
+        if (!singleValued.children.isEmpty()) {
+            fetch(em, entities, singleValued);
+        }
+        fetchCollections(em, entities);
+    }
+
+    /**
+     * Fetch collections of already loaded Entities using secondary queries, one query per collection
+     *
+     * @param em       entity manager the Entities are managed by
+     * @param entities loaded Entities
+     */
+    public void fetchCollections(EntityManager em, List<ENTITY> entities) {
+        for (Node collection : collections.values()) {
+            fetch(em, entities, collection);
+        }
+    }
+
+    private void fetch(EntityManager em, List<ENTITY> entities, Node fetches) {
+        List<ENTITY> nonNull = new ArrayList<>(entities);
+        nonNull.removeIf(Objects::isNull);
+        for (int from = 0; from < nonNull.size(); from += RelationBatch.MAX_IN_SIZE) {
+            List<ENTITY> chunk = nonNull.subList(from, Math.min(from + RelationBatch.MAX_IN_SIZE, nonNull.size()));
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            CriteriaQuery<ENTITY> query = cb.createQuery(entityClass);
+            Root<ENTITY> root = query.from(entityClass);
+            addFetches(fetches, root);
+            query.select(root).distinct(true).where(root.in(chunk));
+            // Result isn't needed: fetched relations are attached to the Entities of the persistence context
+            em.createQuery(query).getResultList();
+        }
+    }
+
+    /**
+     * Detach Entities together with their loaded relations read by the links (including relations left lazy
+     * by the plan and loaded while mapping) from the entity manager, so the persistence context doesn't keep them.
+     * Relations which aren't loaded are not initialized, relations not read by the links (e.g. eager ones)
+     * and relations under not initialized proxies stay managed. Unflushed changes of the detached Entities
+     * are lost.
+     *
+     * @param em       entity manager the Entities are managed by
+     * @param entities loaded Entities
+     */
+    public void detach(EntityManager em, List<ENTITY> entities) {
+        PersistenceUnitUtil util = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        Set<Object> detached = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ENTITY entity : entities) {
+            detach(em, util, entity, relations, detached);
+        }
+    }
+
+    private static void detach(EntityManager em, PersistenceUnitUtil util, Object entity, Node node,
+                               Set<Object> detached) {
+        if (entity == null) {
+            return;
+        }
+        node.children.forEach((name, child) -> {
+            if (!ClassCache.getInstance().hasProperty(entity.getClass(), name) || !util.isLoaded(entity, name)) {
+                return;
+            }
+            Object value = ClassCache.getInstance().getProperty((Class<Object>) entity.getClass(), name).getter()
+                .apply(entity);
+            if (value instanceof Map) {
+                value = ((Map<?, ?>) value).values();
+            }
+            if (value instanceof Collection) {
+                ((Collection<?>) value).forEach(element -> detach(em, util, element, child, detached));
+            } else {
+                detach(em, util, value, child, detached);
+            }
+        });
+        if (detached.add(entity)) {
+            em.detach(entity);
+        }
+    }
+
+    private static void addFetches(Node node, FetchParent<?, ?> parent) {
+        node.children.forEach((name, child) -> addFetches(child, parent.fetch(name, JoinType.LEFT)));
+    }
+
+    @Override
+    public String toString() {
+        return "FetchPlan(entity=" + entityClass.getSimpleName() + ",paths=" + paths + ")";
+    }
+
+    private static class Segment {
+
+        private final String name;
+        private final boolean collection;
+        private final boolean values;
+
+        private Segment(String name, boolean collection, boolean values) {
+            this.name = name;
+            this.collection = collection;
+            this.values = values;
+        }
+    }
+
+    private static class Node {
+
+        private final Map<String, Node> children = new LinkedHashMap<>();
+    }
+}
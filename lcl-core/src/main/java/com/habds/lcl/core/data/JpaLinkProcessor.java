@@ -1,16 +1,24 @@
 package com.habds.lcl.core.data;
 
+import com.habds.lcl.core.processor.RelationBatch;
 import com.habds.lcl.core.processor.impl.SimpleLinkProcessor;
 import com.habds.lcl.core.processor.impl.SimpleProcessor;
 import com.habds.lcl.core.processor.impl.ext.JpaRelationSetterPostMapping;
 
 import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Simple link processor allowing to change relations of {@link com.habds.lcl.core.annotation.ClassLink}'ed entity
  *
  * @author Yurii Smyrnov
- * @version 2
+ * @version 3
  * @see JpaRelationSetterPostMapping
  * @since 2/26/16 8:50 PM
  */
@@ -18,6 +26,7 @@ import javax.persistence.EntityManager;
 public class JpaLinkProcessor extends SimpleLinkProcessor {
 
     protected EntityManager em;
+    protected boolean useReferences;
 
     public JpaLinkProcessor(EntityManager em) {
         this.em = em;
@@ -31,9 +40,48 @@ public class JpaLinkProcessor extends SimpleLinkProcessor {
             protected Object getRelationValue(Class<?> entityType, Object primaryKey) {
                 return em.find(entityType, primaryKey);
             }
+
+            @Override
+            protected Object getRelationReference(Class<?> entityType, Object primaryKey) {
+                return em.getReference(entityType, primaryKey);
+            }
+
+            @Override
+            protected boolean useReferences() {
+                return useReferences;
+            }
+
+            @Override
+            protected Map<Object, Object> getRelationValues(Class<?> entityType, String idProperty,
+                                                            Collection<Object> primaryKeys) {
+                return byPrimaryKey(em.getEntityManagerFactory().getPersistenceUnitUtil(),
+                    findAll(entityType, idProperty, primaryKeys));
+            }
         });
     }
 
+    /**
+     * Find Entities by primary keys using IN queries of at most {@link RelationBatch#MAX_IN_SIZE} keys
+     *
+     * @param entityType  type of Entity
+     * @param idProperty  name of the primary key property
+     * @param primaryKeys primary keys
+     * @return found Entities
+     */
+    protected List<Object> findAll(Class<?> entityType, String idProperty, Collection<Object> primaryKeys) {
+        List<Object> keys = new ArrayList<>(primaryKeys);
+        List<Object> result = new ArrayList<>(keys.size());
+        for (int from = 0; from < keys.size(); from += RelationBatch.MAX_IN_SIZE) {
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            CriteriaQuery<Object> query = cb.createQuery((Class<Object>) entityType);
+            Root<Object> root = query.from((Class<Object>) entityType);
+            List<Object> chunk = keys.subList(from, Math.min(from + RelationBatch.MAX_IN_SIZE, keys.size()));
+            query.where(root.get(idProperty).in(chunk));
+            result.addAll(em.createQuery(query).getResultList());
+        }
+        return result;
+    }
+
     public EntityManager getEm() {
         return em;
     }
@@ -41,4 +89,17 @@ public class JpaLinkProcessor extends SimpleLinkProcessor {
     public void setEm(EntityManager em) {
         this.em = em;
     }
+
+    public boolean isUseReferences() {
+        return useReferences;
+    }
+
+    /**
+     * @param useReferences true to set relations of all the DTO fields by {@link EntityManager#getReference},
+     *                      false (default) to do it only for fields annotated with
+     *                      {@link com.habds.lcl.core.annotation.Reference}
+     */
+    public void setUseReferences(boolean useReferences) {
+        this.useReferences = useReferences;
+    }
 }
@@ -0,0 +1,145 @@
+package com.habds.lcl.core.data;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Codec of keyset pagination continuation tokens: values of the sort keys of the last row of the page
+ * (see {@link PagingAndSorting#withKeyset(String, Integer)}). Each value is written as its string form
+ * (milliseconds for {@link Date} other than {@link Timestamp}, name for enums) and restored by the Java type
+ * of the sort key's path, using {@code valueOf(String)}, {@code parse(CharSequence)} or {@code (String)} constructor
+ * of the type.
+ * <p>
+ * Tokens are opaque for clients, but they are not signed: a client can craft any values of the sort keys,
+ * so tokens must not be trusted more than other filter values.
+ *
+ * @version 1
+ * @since 10/18/26 4:47 PM
+ */
+public final class Keyset {
+
+    private static final String NULL = "~";
+    private static final String SEPARATOR = ".";
+
+    private Keyset() {
+    }
+
+    /**
+     * Encode values of the sort keys into continuation token
+     *
+     * @param values values of the sort keys, nullable
+     * @return token
+     */
+    public static String encode(Object... values) {
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                token.append(SEPARATOR);
+            }
+            token.append(values[i] == null ? NULL : Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(toString(values[i]).getBytes(StandardCharsets.UTF_8)));
+        }
+        return token.toString();
+    }
+
+    /**
+     * Decode values of the sort keys from continuation token
+     *
+     * @param token token created by {@link Keyset#encode(Object...)}
+     * @param types Java types of the sort keys
+     * @return values of the sort keys
+     * @throws IllegalArgumentException if token doesn't match the sort keys
+     */
+    public static Object[] decode(String token, Class<?>... types) {
+        String[] parts = token.split("\\" + SEPARATOR, -1);
+        if (parts.length != types.length) {
+            throw new IllegalArgumentException("Continuation token doesn't match " + types.length + " sort keys");
+        }
+        Object[] values = new Object[types.length];
+        try {
+            for (int i = 0; i < types.length; i++) {
+                values[i] = NULL.equals(parts[i]) ? null : fromString(
+                    new String(Base64.getUrlDecoder().decode(parts[i]), StandardCharsets.UTF_8), types[i]);
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid continuation token", ex);
+        }
+        return values;
+    }
+
+    private static String toString(Object value) {
+        // Timestamp keeps nanoseconds in its string form
+        if (value instanceof Date && !(value instanceof Timestamp)) {
+            return String.valueOf(((Date) value).getTime());
+        }
+        if (value instanceof Enum) {
+            return ((Enum) value).name();
+        }
+        return value.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object fromString(String value, Class<?> type) {
+        if (type == String.class) {
+            return value;
+        }
+        if (type.isEnum()) {
+            return Enum.valueOf((Class<Enum>) type, value);
+        }
+        if (type == Character.class || type == char.class) {
+            return value.charAt(0);
+        }
+        Class<?> boxed = box(type);
+        try {
+            if (Date.class.isAssignableFrom(type)) {
+                if (!value.matches("-?\\d+")) {
+                    return Timestamp.valueOf(value);
+                }
+                long time = Long.parseLong(value);
+                return type == Date.class ? new Date(time) : type.getConstructor(long.class).newInstance(time);
+            }
+            for (Method method : boxed.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) && boxed.isAssignableFrom(method.getReturnType())
+                    && method.getParameterCount() == 1
+                    && ("valueOf".equals(method.getName()) && method.getParameterTypes()[0] == String.class
+                    || "parse".equals(method.getName()) && method.getParameterTypes()[0] == CharSequence.class)) {
+                    return method.invoke(null, value);
+                }
+            }
+            Constructor<?> constructor = boxed.getConstructor(String.class);
+            return constructor.newInstance(value);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalArgumentException("Sort key of " + type + " can't be restored from string", ex);
+        }
+    }
+
+    private static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        if (type == double.class) {
+            return Double.class;
+        }
+        if (type == float.class) {
+            return Float.class;
+        }
+        if (type == short.class) {
+            return Short.class;
+        }
+        if (type == byte.class) {
+            return Byte.class;
+        }
+        return Boolean.class;
+    }
+}
@@ -4,10 +4,14 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
- * Class holds data about query pagination and sorting
+ * Class holds data about query pagination and sorting.
+ * <p>
+ * Pages are selected by offset ({@link PagingAndSorting#withPagination(Integer, Integer)}) or by keyset
+ * ({@link PagingAndSorting#withKeyset(String, Integer)}): rows following the last row of the previous page
+ * in the order of sortings and then primary key, so deep pages cost as much as the first one.
  *
  * @author Yurii Smyrnov
- * @version 1
+ * @version 2
  * @since 1/4/16 11:25 PM
  */
 public class PagingAndSorting {
@@ -15,6 +19,9 @@ public class PagingAndSorting {
     protected Integer page;
     protected Integer pageSize;
     protected Map<String, Boolean> sortings = new LinkedHashMap<>();
+    protected boolean keyset;
+    protected String after;
+    protected boolean counted = true;
 
     public PagingAndSorting() {
     }
@@ -43,6 +50,31 @@ public class PagingAndSorting {
         return this;
     }
 
+    /**
+     * Select pages by keyset instead of offset, page number is ignored
+     *
+     * @param after    continuation token of the previous page ({@link Sheet#getNext()}), null for the first page
+     * @param pageSize page size
+     * @return this object
+     */
+    public PagingAndSorting withKeyset(String after, Integer pageSize) {
+        this.keyset = true;
+        this.after = after;
+        this.page = null;
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Skip counting of the total number of elements
+     *
+     * @return this object
+     */
+    public PagingAndSorting withoutCount() {
+        this.counted = false;
+        return this;
+    }
+
     public PagingAndSorting orderBy(String property, boolean ascending) {
         sortings.put(property, ascending);
         return this;
@@ -64,6 +96,18 @@ public class PagingAndSorting {
         return sortings;
     }
 
+    public boolean isKeyset() {
+        return keyset;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    public boolean isCounted() {
+        return counted;
+    }
+
     public void setPage(Integer page) {
         this.page = page;
     }
@@ -76,4 +120,16 @@ public class PagingAndSorting {
         this.sortings = sortings;
         sortings.values().removeIf(v -> v == null);
     }
+
+    public void setKeyset(boolean keyset) {
+        this.keyset = keyset;
+    }
+
+    public void setAfter(String after) {
+        this.after = after;
+    }
+
+    public void setCounted(boolean counted) {
+        this.counted = counted;
+    }
 }
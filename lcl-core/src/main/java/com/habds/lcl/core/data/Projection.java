@@ -0,0 +1,244 @@
+package com.habds.lcl.core.data;
+
+import com.habds.lcl.core.processor.GetterMapping;
+import com.habds.lcl.core.processor.RelationBatch;
+import com.habds.lcl.core.processor.impl.MappingMetadata;
+import com.habds.lcl.core.processor.impl.PathGetterMapping;
+import com.habds.lcl.core.processor.impl.util.ClassCache;
+import com.habds.lcl.core.processor.impl.util.Property;
+
+import javax.persistence.ElementCollection;
+import javax.persistence.EntityManager;
+import javax.persistence.Transient;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.*;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Projection of the Entity into DTO: linked properties of the Entity are selected by {@link Tuple} query
+ * and DTOs are built straight from the tuples, without loading Entities into the persistence context.
+ * <p>
+ * Basic and embedded properties are selected as columns, single-valued relations of their paths are left-joined
+ * and embeddables are navigated without joins. Each element collection is selected by its own secondary query
+ * for the whole list of DTOs, grouped by the primary key. Selected values pass through the same post mappings
+ * (enums, nested DTOs of embeddables, collections) as during
+ * {@link com.habds.lcl.core.processor.Processor#process(Object, Class)}.
+ * <p>
+ * DTO can be projected when every its property is linked to a basic or embedded value, or to an element
+ * collection, through single-valued relations followed by embeddables, and the Entity has single primary key
+ * attribute. Properties linked to relations themselves (nested DTOs of related Entities, collections of Entities)
+ * would load the Entities anyway, so such DTOs are not projected and are read as Entities.
+ *
+ * @param <ENTITY> type of Entity
+ * @param <DTO>    type of DTO
+ * @version 1
+ * @since 10/18/26 4:33 PM
+ */
+@SuppressWarnings("unchecked")
+public class Projection<ENTITY, DTO> {
+
+    private final Class<ENTITY> entityClass;
+    private final Supplier<DTO> dtoConstructor;
+    // Selected by the main query, after the primary key
+    private final Column[] columns;
+    // Selected by secondary queries
+    private final Column[] collections;
+
+    private Projection(Class<ENTITY> entityClass, Supplier<DTO> dtoConstructor,
+                       List<Column> columns, List<Column> collections) {
+        this.entityClass = entityClass;
+        this.dtoConstructor = dtoConstructor;
+        this.columns = columns.toArray(new Column[columns.size()]);
+        this.collections = collections.toArray(new Column[collections.size()]);
+    }
+
+    /**
+     * Create projection of configured DTO's mappings
+     *
+     * @param metadata DTO's mapping metadata
+     * @param <ENTITY> type of Entity
+     * @param <DTO>    type of DTO
+     * @return projection
+     * @throws IllegalArgumentException if DTO can't be projected
+     */
+    public static <ENTITY, DTO> Projection<ENTITY, DTO> of(MappingMetadata<ENTITY, DTO> metadata) {
+        Class<DTO> dtoClass = metadata.getDtoClass();
+        List<Column> columns = new ArrayList<>();
+        List<Column> collections = new ArrayList<>();
+        List<String> names = metadata.getPropertyNames();
+        for (int i = 0; i < names.size(); i++) {
+            GetterMapping mapping = metadata.getGetterMapping(i);
+            if (!(mapping instanceof PathGetterMapping)) {
+                throw new IllegalArgumentException("Property " + names.get(i) + " of " + dtoClass
+                    + " isn't linked to Entity's property path");
+            }
+            PathGetterMapping path = (PathGetterMapping) mapping;
+            String[] segments = path.getNames();
+            Class<?> currentClass = metadata.getEntityClass();
+            Field field = null;
+            int joins = 0;
+            for (int j = 0; j < segments.length; j++) {
+                field = ClassCache.getInstance().getAllFields(currentClass).get(segments[j]);
+                boolean last = j == segments.length - 1;
+                if (field == null || field.getAnnotation(Transient.class) != null
+                    || (FetchPlan.isRelation(field) && (last || j > joins)
+                    && field.getAnnotation(ElementCollection.class) == null)
+                    || (FetchPlan.isCollection(field) && (!last || j > joins))) {
+                    throw new IllegalArgumentException("Property " + names.get(i) + " of " + dtoClass
+                        + " isn't linked to persistent value through single-valued relations and embeddables");
+                }
+                if (!last && FetchPlan.isRelation(field)) {
+                    joins++;
+                }
+                currentClass = field.getType();
+            }
+            Column column = new Column(segments, joins, field.getType(), path.getPostMapping(),
+                ClassCache.getInstance().getProperty(dtoClass, names.get(i)));
+            (FetchPlan.isCollection(field) ? collections : columns).add(column);
+        }
+        return new Projection<>(metadata.getEntityClass(), ClassCache.getInstance().getConstructor(dtoClass),
+            columns, collections);
+    }
+
+    public Class<ENTITY> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * Select primary key and linked properties of the query root
+     *
+     * @param query tuple query
+     * @param root  query root
+     * @param em    entity manager
+     */
+    public void select(CriteriaQuery<Tuple> query, Root<ENTITY> root, EntityManager em) {
+        List<Selection<?>> selections = new ArrayList<>(columns.length + 1);
+        selections.add(root.get(getIdAttribute(em)));
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+        for (Column column : columns) {
+            Path<?> path = root;
+            String key = "";
+            for (int i = 0; i < column.path.length - 1; i++) {
+                if (i < column.joins) {
+                    key += "." + column.path[i];
+                    path = join(joins, key, (From<?, ?>) path, column.path[i]);
+                } else {
+                    // Embeddables are parts of the row, not joined tables
+                    path = path.get(column.path[i]);
+                }
+            }
+            selections.add(path.get(column.path[column.path.length - 1]));
+        }
+        query.multiselect(selections);
+    }
+
+    private static Join<?, ?> join(Map<String, Join<?, ?>> joins, String key, From<?, ?> from, String name) {
+        Join<?, ?> join = joins.get(key);
+        if (join == null) {
+            // Left join keeps the row, so the value is null like for null intermediate property of the Entity
+            join = from.join(name, JoinType.LEFT);
+            joins.put(key, join);
+        }
+        return join;
+    }
+
+    /**
+     * Convert tuples selected by {@link Projection#select(CriteriaQuery, Root, EntityManager)} into DTOs,
+     * fetching collections by secondary queries
+     *
+     * @param em     entity manager
+     * @param tuples selected tuples
+     * @return DTOs in order of the tuples
+     */
+    public List<DTO> toDTOs(EntityManager em, List<Tuple> tuples) {
+        List<DTO> dtos = new ArrayList<>(tuples.size());
+        List<Object> ids = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            DTO dto = dtoConstructor.get();
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].set(dto, tuple.get(i + 1));
+            }
+            ids.add(tuple.get(0));
+            dtos.add(dto);
+        }
+        for (Column collection : collections) {
+            Map<Object, Collection<Object>> elements = fetch(em, collection, ids);
+            for (int i = 0; i < dtos.size(); i++) {
+                Collection<Object> value = elements.get(ids.get(i));
+                collection.set(dtos.get(i), value == null ? collection.newCollection() : value);
+            }
+        }
+        return dtos;
+    }
+
+    private Map<Object, Collection<Object>> fetch(EntityManager em, Column collection, List<Object> ids) {
+        Map<Object, Collection<Object>> elements = new HashMap<>();
+        List<Object> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        for (int from = 0; from < distinctIds.size(); from += RelationBatch.MAX_IN_SIZE) {
+            List<Object> chunk = distinctIds.subList(from, Math.min(from + RelationBatch.MAX_IN_SIZE, distinctIds.size()));
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = cb.createTupleQuery();
+            Root<ENTITY> root = query.from(entityClass);
+            Path<?> id = root.get(getIdAttribute(em));
+            From<?, ?> join = root;
+            for (String name : collection.path) {
+                // Only single-valued relations precede the element collection
+                join = join.join(name);
+            }
+            query.multiselect(id, join).where(id.in(chunk));
+            for (Tuple tuple : em.createQuery(query).getResultList()) {
+                elements.computeIfAbsent(tuple.get(0), k -> collection.newCollection()).add(tuple.get(1));
+            }
+        }
+        return elements;
+    }
+
+    private SingularAttribute<? super ENTITY, ?> getIdAttribute(EntityManager em) {
+        EntityType<ENTITY> entityType = em.getMetamodel().entity(entityClass);
+        if (!entityType.hasSingleIdAttribute()) {
+            throw new IllegalStateException("Projection requires single primary key attribute of " + entityClass);
+        }
+        return entityType.getId(entityType.getIdType().getJavaType());
+    }
+
+    /**
+     * Selected Entity's path and the DTO's property it is mapped into
+     */
+    private static class Column {
+
+        private final String[] path;
+        // Number of leading path segments which are single-valued relations, the rest are embeddables
+        private final int joins;
+        private final Class<?> type;
+        private final GetterMapping postMapping;
+        private final BiFunction dtoSetter;
+        private final boolean primitive;
+
+        private Column(String[] path, int joins, Class<?> type, GetterMapping postMapping,
+                       Property<?, ?> dtoProperty) {
+            this.path = path;
+            this.joins = joins;
+            this.type = type;
+            this.postMapping = postMapping;
+            this.dtoSetter = dtoProperty.setter();
+            this.primitive = dtoProperty.getType().isPrimitive();
+        }
+
+        private void set(Object dto, Object value) {
+            Object dtoValue = postMapping == null ? value : postMapping.map(value, dto);
+            // Primitive property keeps its initial value if the path has null
+            if (dtoValue != null || !primitive) {
+                dtoSetter.apply(dto, dtoValue);
+            }
+        }
+
+        private Collection<Object> newCollection() {
+            return Set.class.isAssignableFrom(type) ? new LinkedHashSet<>() : new ArrayList<>();
+        }
+    }
+}
@@ -7,26 +7,59 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
- * Paged result
+ * Paged result. Total number of elements is known unless counting was skipped
+ * ({@link PagingAndSorting#withoutCount()}) or the result is a slice, pages selected by keyset have
+ * continuation token of the next page.
  *
  * @author Yurii Smyrnov
- * @version 2
+ * @version 4
  * @see PagingAndSorting
  * @since 2/16/16 8:04 PM
  */
 public class Sheet<E> {
 
     private Long totalPages;
-    private long totalElements;
+    private Long totalElements;
     private List<E> content;
     private PagingAndSorting pageable;
+    private String next;
+    private boolean hasNext;
 
     public Sheet(List<E> content, long totalElements, PagingAndSorting pageable) {
+        this(content, (Long) totalElements, pageable, null);
+    }
+
+    /**
+     * @param content       content of the page
+     * @param totalElements total number of elements or null if not counted
+     * @param pageable      pagination and sorting settings
+     * @param next          continuation token of the next page selected by keyset, null if there is no next page
+     */
+    public Sheet(List<E> content, Long totalElements, PagingAndSorting pageable, String next) {
         this.pageable = pageable;
         this.content = content;
         this.totalElements = totalElements;
-        this.totalPages = getPageSize() == null
+        this.next = next;
+        this.totalPages = getPageSize() == null || totalElements == null
             ? null : (long) Math.ceil((double) totalElements / (double) getPageSize());
+        if (pageable.isKeyset()) {
+            this.hasNext = next != null;
+        } else if (totalElements != null && getPageSize() != null) {
+            long offset = getPage() == null ? 0 : (long) getPage() * getPageSize();
+            this.hasNext = offset + content.size() < totalElements;
+        }
+    }
+
+    /**
+     * Create slice: page without total number of elements
+     *
+     * @param content  content of the page
+     * @param pageable pagination and sorting settings
+     * @param hasNext  true if there are elements after this page
+     */
+    public Sheet(List<E> content, PagingAndSorting pageable, boolean hasNext) {
+        this(content, null, pageable, null);
+        this.hasNext = hasNext;
     }
 
     public Integer getPage() {
@@ -55,12 +88,37 @@ public class Sheet<E> {
         return content.size();
     }
 
+    /**
+     * @return total number of pages or -1 if elements are not counted or pages are unlimited
+     */
     public long getTotalPages() {
-        return totalPages;
+        return totalPages == null ? -1 : totalPages;
     }
 
+    /**
+     * @return total number of elements or -1 if not counted
+     */
     public long getTotalElements() {
-        return totalElements;
+        return totalElements == null ? -1 : totalElements;
+    }
+
+    public boolean isCounted() {
+        return totalElements != null;
+    }
+
+    /**
+     * @return true if there are elements after this page
+     */
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    /**
+     * @return continuation token to pass into {@link PagingAndSorting#withKeyset(String, Integer)}
+     * for the next page, null if this page is the last one or isn't selected by keyset
+     */
+    public String getNext() {
+        return next;
     }
 
     public List<E> getContent() {
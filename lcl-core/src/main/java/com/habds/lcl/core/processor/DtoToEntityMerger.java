@@ -0,0 +1,25 @@
+package com.habds.lcl.core.processor;
+
+/**
+ * Plain-Java merging of DTO data into Entity. Implementations are usually generated at compile time
+ * by the {@code lcl-apt} annotation processor together with {@link EntityToDtoMapper}, when all DTO's
+ * links can be written through public Entity's accessors.
+ *
+ * @param <ENTITY> type of Entity
+ * @param <DTO>    type of DTO
+ * @version 1
+ * @since 10/18/26 4:08 PM
+ */
+@FunctionalInterface
+public interface DtoToEntityMerger<ENTITY, DTO> {
+
+    /**
+     * Merge data from DTO into Entity
+     *
+     * @param entity    Entity, non-nullable
+     * @param dto       DTO
+     * @param processor processor the DTO is registered within
+     * @return updated Entity
+     */
+    ENTITY merge(ENTITY entity, DTO dto, Processor processor);
+}
@@ -0,0 +1,43 @@
+package com.habds.lcl.core.processor;
+
+/**
+ * Plain-Java mapping of Entity into DTO. Implementations are usually generated at compile time
+ * by the {@code lcl-apt} annotation processor and are picked up by
+ * {@link com.habds.lcl.core.processor.impl.SimpleProcessor} instead of the link mappings built at runtime.
+ * <p>
+ * Generated implementation of DTO {@code com.example.dto.ClientDto} is named
+ * {@code com.example.dto.ClientDto_LclMapper}, see {@link EntityToDtoMapper#generatedClassName(Class)}.
+ *
+ * @param <ENTITY> type of Entity
+ * @param <DTO>    type of DTO
+ * @version 1
+ * @since 10/18/26 4:08 PM
+ */
+@FunctionalInterface
+public interface EntityToDtoMapper<ENTITY, DTO> {
+
+    /**
+     * Suffix of the classes generated by {@code lcl-apt} annotation processor
+     */
+    String GENERATED_CLASS_SUFFIX = "_LclMapper";
+
+    /**
+     * Create DTO from the specified Entity
+     *
+     * @param entity    Entity, non-nullable
+     * @param processor processor used for nested DTOs
+     * @return DTO object
+     */
+    DTO map(ENTITY entity, Processor processor);
+
+    /**
+     * Get name of the mapper class generated for specified DTO class. Nested class names are flattened
+     * using underscore, so mapper of {@code Outer.Dto} is named {@code Outer_Dto_LclMapper}.
+     *
+     * @param dtoClass DTO class
+     * @return fully qualified name of the generated class
+     */
+    static String generatedClassName(Class<?> dtoClass) {
+        return dtoClass.getName().replace('$', '_') + GENERATED_CLASS_SUFFIX;
+    }
+}
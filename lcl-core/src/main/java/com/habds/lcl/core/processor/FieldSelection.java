@@ -0,0 +1,103 @@
+package com.habds.lcl.core.processor;
+
+import java.util.*;
+
+/**
+ * Tree of DTO's property names to be filled by {@link Processor#process(Object, Class, FieldSelection)},
+ * other properties are left untouched. Nested DTO's properties are selected using dot-paths:
+ * {@code FieldSelection.of("name", "manager.name")} fills only {@code name} of the DTO and only {@code name}
+ * of its nested {@code manager} DTO. Property selected as a whole ({@code "manager"}) is filled completely,
+ * even if its nested properties are selected as well.
+ * <p>
+ * Selections are immutable and comparable, so compiled mapping plans are cached per distinct selection.
+ *
+ * @version 1
+ * @since 10/18/26 4:24 PM
+ */
+public final class FieldSelection {
+
+    // Property name -> nested selection, null value means the whole property
+    private final Map<String, FieldSelection> properties;
+
+    private FieldSelection(Map<String, FieldSelection> properties) {
+        this.properties = Collections.unmodifiableMap(properties);
+    }
+
+    /**
+     * Create selection from DTO's property dot-paths
+     *
+     * @param paths property dot-paths
+     * @return selection
+     */
+    public static FieldSelection of(String... paths) {
+        return of(Arrays.asList(paths));
+    }
+
+    /**
+     * Create selection from DTO's property dot-paths
+     *
+     * @param paths property dot-paths
+     * @return selection
+     */
+    public static FieldSelection of(Collection<String> paths) {
+        Map<String, List<String>> nestedPaths = new LinkedHashMap<>();
+        for (String path : paths) {
+            int separator = path.indexOf('.');
+            String name = separator < 0 ? path : path.substring(0, separator);
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Invalid property path: " + path);
+            }
+            if (separator < 0) {
+                // Whole property is selected
+                nestedPaths.put(name, null);
+                continue;
+            }
+            if (!nestedPaths.containsKey(name)) {
+                nestedPaths.put(name, new ArrayList<>());
+            }
+            List<String> nested = nestedPaths.get(name);
+            if (nested != null) {
+                nested.add(path.substring(separator + 1));
+            }
+        }
+        Map<String, FieldSelection> properties = new LinkedHashMap<>();
+        nestedPaths.forEach((name, nested) -> properties.put(name, nested == null ? null : of(nested)));
+        return new FieldSelection(properties);
+    }
+
+    /**
+     * @return names of selected properties
+     */
+    public Set<String> getNames() {
+        return properties.keySet();
+    }
+
+    public boolean contains(String name) {
+        return properties.containsKey(name);
+    }
+
+    /**
+     * Get selection of nested DTO's properties
+     *
+     * @param name property name
+     * @return nested selection or null if the property is selected as a whole (or not selected at all)
+     */
+    public FieldSelection getNested(String name) {
+        return properties.get(name);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof FieldSelection && properties.equals(((FieldSelection) o).properties);
+    }
+
+    @Override
+    public int hashCode() {
+        return properties.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "FieldSelection" + properties;
+    }
+}
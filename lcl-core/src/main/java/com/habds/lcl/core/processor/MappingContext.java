@@ -0,0 +1,56 @@
+package com.habds.lcl.core.processor;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Identity map of Entities already converted into DTOs within one mapping session
+ * (single {@link Processor#process(Object, Class, MappingContext)} call or a batch of calls).
+ * Entity referenced several times is converted into the same DTO instance per DTO class,
+ * and cyclic references become back-references to the DTO being filled instead of endless recursion.
+ * So DTOs created with the context may form cyclic graphs themselves.
+ * <p>
+ * Entities are compared by identity, not by {@code equals()}. Context isn't thread-safe and holds all
+ * the mapped Entities and DTOs until it is cleared or discarded.
+ *
+ * @version 1
+ * @since 10/18/26 4:23 PM
+ */
+@SuppressWarnings("unchecked")
+public class MappingContext {
+
+    private final Map<Class, Map<Object, Object>> dtos = new HashMap<>();
+
+    /**
+     * Get DTO already created for the Entity
+     *
+     * @param entity   Entity
+     * @param dtoClass DTO class
+     * @param <DTO>    type of DTO
+     * @return DTO or null if Entity wasn't mapped into specified DTO class yet
+     */
+    public <DTO> DTO get(Object entity, Class<DTO> dtoClass) {
+        Map<Object, Object> mapped = dtos.get(dtoClass);
+        return mapped == null ? null : (DTO) mapped.get(entity);
+    }
+
+    /**
+     * Register DTO created for the Entity. Called before DTO is filled, so cyclic references can point to it.
+     *
+     * @param entity   Entity
+     * @param dtoClass DTO class
+     * @param dto      DTO
+     * @param <DTO>    type of DTO
+     */
+    public <DTO> void put(Object entity, Class<DTO> dtoClass, DTO dto) {
+        dtos.computeIfAbsent(dtoClass, c -> new IdentityHashMap<>()).put(entity, dto);
+    }
+
+    /**
+     * Forget all the mapped Entities, e.g. between the chunks of the batch
+     */
+    public void clear() {
+        dtos.clear();
+    }
+}
@@ -1,6 +1,8 @@
 package com.habds.lcl.core.processor;
 
 import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.data.FetchPlan;
+import com.habds.lcl.core.data.Projection;
 import com.habds.lcl.core.data.Specs;
 import com.habds.lcl.core.data.filter.Filter;
 
@@ -8,6 +10,7 @@ import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Root;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -21,7 +24,7 @@ import java.util.stream.Collectors;
  * and "Entity class" - class specified in DTO's {@link ClassLink#value()}
  *
  * @author Yurii Smyrnov
- * @version 1
+ * @version 2
  * @since 11/30/2015 11:52 PM
  */
 public interface Processor {
@@ -60,6 +63,76 @@ public interface Processor {
         return entities.stream().map(e -> process(e, dtoClass)).collect(Collectors.toList());
     }
 
+    /**
+     * Create DTO from the specified Entity within mapping session. Entities (including nested ones)
+     * already mapped into the same DTO class within the context are not mapped again,
+     * their DTOs are reused. Default implementation reuses DTOs of the top-level Entities only.
+     *
+     * @param entity   Entity
+     * @param dtoClass class of DTO
+     * @param context  mapping context
+     * @param <ENTITY> type of Entity
+     * @param <DTO>    type of DTO
+     * @return DTO object
+     */
+    default <ENTITY, DTO> DTO process(ENTITY entity, Class<DTO> dtoClass, MappingContext context) {
+        if (entity == null) {
+            return null;
+        }
+        DTO dto = context.get(entity, dtoClass);
+        if (dto == null) {
+            dto = process(entity, dtoClass);
+            context.put(entity, dtoClass, dto);
+        }
+        return dto;
+    }
+
+    /**
+     * Create DTOs from the specified Entities within single mapping session, see
+     * {@link Processor#process(Object, Class, MappingContext)}
+     *
+     * @param entities Entities
+     * @param dtoClass class of DTO
+     * @param context  mapping context
+     * @param <ENTITY> type of Entity
+     * @param <DTO>    type of DTO
+     * @return list of DTOs
+     */
+    default <ENTITY, DTO> List<DTO> process(List<ENTITY> entities, Class<DTO> dtoClass, MappingContext context) {
+        return entities.stream().map(e -> process(e, dtoClass, context)).collect(Collectors.toList());
+    }
+
+    /**
+     * Create DTO from the specified Entity filling only selected properties, other properties keep values
+     * assigned by DTO's constructor. Links of not selected properties are not evaluated at all,
+     * so lazy relations behind them are not loaded. Default implementation fills all the properties.
+     *
+     * @param entity    Entity
+     * @param dtoClass  class of DTO
+     * @param selection selected DTO's properties
+     * @param <ENTITY>  type of Entity
+     * @param <DTO>     type of DTO
+     * @return DTO object
+     */
+    default <ENTITY, DTO> DTO process(ENTITY entity, Class<DTO> dtoClass, FieldSelection selection) {
+        return process(entity, dtoClass);
+    }
+
+    /**
+     * Create DTOs from the specified Entities filling only selected properties, see
+     * {@link Processor#process(Object, Class, FieldSelection)}
+     *
+     * @param entities  Entities
+     * @param dtoClass  class of DTO
+     * @param selection selected DTO's properties
+     * @param <ENTITY>  type of Entity
+     * @param <DTO>     type of DTO
+     * @return list of DTOs
+     */
+    default <ENTITY, DTO> List<DTO> process(List<ENTITY> entities, Class<DTO> dtoClass, FieldSelection selection) {
+        return entities.stream().map(e -> process(e, dtoClass, selection)).collect(Collectors.toList());
+    }
+
     /**
      * Merge data from DTO into Entity
      *
@@ -95,6 +168,56 @@ public interface Processor {
         return merge(merge(entity, dto), properties);
     }
 
+    /**
+     * Merge data from DTOs into Entities as a batch: relations looked up by primary keys are resolved
+     * for the whole batch at once and cached in the specified relation batch. Default implementation merges
+     * DTOs one by one, not using the batch.
+     *
+     * @param entities Entities
+     * @param dtos     DTOs, i-th DTO is merged into i-th Entity
+     * @param batch    relation batch, may be shared by several calls
+     * @param <ENTITY> type of Entity
+     * @param <DTO>    type of DTO
+     * @return updated Entities
+     * @see RelationBatch
+     */
+    default <ENTITY, DTO> List<ENTITY> mergeAll(List<ENTITY> entities, List<DTO> dtos, RelationBatch batch) {
+        if (entities.size() != dtos.size()) {
+            throw new IllegalArgumentException("Number of Entities " + entities.size()
+                + " doesn't match number of DTOs " + dtos.size());
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            if (dtos.get(i) != null) {
+                merge(entities.get(i), dtos.get(i));
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Merge data from DTOs into Entities as a batch using new relation batch
+     *
+     * @param entities Entities
+     * @param dtos     DTOs, i-th DTO is merged into i-th Entity
+     * @param <ENTITY> type of Entity
+     * @param <DTO>    type of DTO
+     * @return updated Entities
+     * @see Processor#mergeAll(List, List, RelationBatch)
+     */
+    default <ENTITY, DTO> List<ENTITY> mergeAll(List<ENTITY> entities, List<DTO> dtos) {
+        return mergeAll(entities, dtos, new RelationBatch());
+    }
+
+    /**
+     * Get relation batch of the {@link Processor#mergeAll(List, List, RelationBatch)} call
+     * made by the current thread
+     *
+     * @return relation batch or null if relations must be looked up one by one
+     */
+    default RelationBatch getRelationBatch() {
+        return null;
+    }
+
     /**
      * Create an Entity object using given DTO
      *
@@ -118,6 +241,36 @@ public interface Processor {
         return merge(create(dto), properties);
     }
 
+    /**
+     * Create Entity objects using given DTOs as a batch, see {@link Processor#mergeAll(List, List, RelationBatch)}.
+     * Default implementation creates Entities one by one, not using the batch.
+     *
+     * @param dtos     DTOs
+     * @param batch    relation batch, may be shared by several calls
+     * @param <ENTITY> type of Entity
+     * @param <DTO>    type of DTO
+     * @return Entities with data from specified DTOs
+     */
+    default <ENTITY, DTO> List<ENTITY> createAll(List<DTO> dtos, RelationBatch batch) {
+        List<ENTITY> entities = new ArrayList<>(dtos.size());
+        for (DTO dto : dtos) {
+            entities.add(dto == null ? null : create(dto));
+        }
+        return entities;
+    }
+
+    /**
+     * Create Entity objects using given DTOs as a batch using new relation batch
+     *
+     * @param dtos     DTOs
+     * @param <ENTITY> type of Entity
+     * @param <DTO>    type of DTO
+     * @return Entities with data from specified DTOs
+     */
+    default <ENTITY, DTO> List<ENTITY> createAll(List<DTO> dtos) {
+        return createAll(dtos, new RelationBatch());
+    }
+
     /**
      * Create JPA specification for Entity based on specified DTO and filters
      *
@@ -146,6 +299,30 @@ public interface Processor {
      */
     <ENTITY, DTO> Specs<ENTITY> createSpecs(DTO dto);
 
+    /**
+     * Get fetch plan of the Entity's relations read while mapping Entity into specified DTO
+     *
+     * @param dtoClass DTO class
+     * @param <ENTITY> type of Entity
+     * @param <DTO>    type of DTO
+     * @return fetch plan derived from DTO's links or null if relations aren't fetched
+     */
+    default <ENTITY, DTO> FetchPlan<ENTITY> getFetchPlan(Class<DTO> dtoClass) {
+        return null;
+    }
+
+    /**
+     * Get projection selecting the Entity's properties linked by specified DTO straight into DTOs
+     *
+     * @param dtoClass DTO class
+     * @param <ENTITY> type of Entity
+     * @param <DTO>    type of DTO
+     * @return projection or null if DTO can't be projected
+     */
+    default <ENTITY, DTO> Projection<ENTITY, DTO> getProjection(Class<DTO> dtoClass) {
+        return null;
+    }
+
     /**
      * Get dot-path for Entity's property by specified DTO class and DTO's property name
      *
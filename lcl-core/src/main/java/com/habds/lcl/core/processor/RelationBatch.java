@@ -0,0 +1,115 @@
+package com.habds.lcl.core.processor;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Batch-scoped cache of the relations looked up by primary key while merging DTOs into Entities
+ * (see {@link com.habds.lcl.core.processor.impl.ext.JpaRelationSetterPostMapping}).
+ * Within {@link Processor#mergeAll(List, List, RelationBatch)} lookups are deferred: primary keys are collected
+ * across the whole batch, resolved with one lookup per Entity type and then assigned to the Entities.
+ * <p>
+ * Both found relations and missing keys are remembered, so no key is looked up twice while the batch is alive.
+ * Reuse the same batch for consecutive chunks to share the cache, clear it when relations may have changed.
+ * Batch isn't thread-safe.
+ *
+ * @version 1
+ * @since 10/18/26 4:36 PM
+ */
+public class RelationBatch {
+
+    /**
+     * Maximal number of primary keys in the IN clause of a single lookup query
+     */
+    public static final int MAX_IN_SIZE = 500;
+
+    private final Map<Class<?>, Map<Object, Object>> relations = new HashMap<>();
+    private final Map<Class<?>, Resolver> resolvers = new HashMap<>();
+    private final Map<Class<?>, List<Assignment>> pending = new LinkedHashMap<>();
+
+    /**
+     * Lookup of several relations of the same type at once
+     */
+    @FunctionalInterface
+    public interface Resolver {
+
+        /**
+         * @param entityType  type of Entity to fetch
+         * @param primaryKeys distinct primary keys, non-empty
+         * @return found relations by primary key, missing keys are absent
+         */
+        Map<Object, Object> resolve(Class<?> entityType, Collection<Object> primaryKeys);
+    }
+
+    /**
+     * Assign relation found by primary key: immediately if the key is already resolved by this batch,
+     * otherwise on {@link RelationBatch#resolve()}
+     *
+     * @param entityType type of Entity to fetch
+     * @param primaryKey primary key value, non-null
+     * @param resolver   lookup used if the key isn't resolved yet
+     * @param assignment action setting the relation (or null if it doesn't exist) into the Entity
+     */
+    public void assign(Class<?> entityType, Object primaryKey, Resolver resolver, Consumer<Object> assignment) {
+        Map<Object, Object> resolved = relations.get(entityType);
+        if (resolved != null && resolved.containsKey(primaryKey)) {
+            assignment.accept(resolved.get(primaryKey));
+            return;
+        }
+        resolvers.putIfAbsent(entityType, resolver);
+        pending.computeIfAbsent(entityType, type -> new ArrayList<>()).add(new Assignment(primaryKey, assignment));
+    }
+
+    /**
+     * Look up all the pending primary keys, one lookup per Entity type, and perform pending assignments
+     */
+    public void resolve() {
+        for (Map.Entry<Class<?>, List<Assignment>> entry : pending.entrySet()) {
+            Class<?> entityType = entry.getKey();
+            Map<Object, Object> resolved = relations.computeIfAbsent(entityType, type -> new HashMap<>());
+            Set<Object> keys = new LinkedHashSet<>();
+            for (Assignment assignment : entry.getValue()) {
+                if (!resolved.containsKey(assignment.primaryKey)) {
+                    keys.add(assignment.primaryKey);
+                }
+            }
+            if (!keys.isEmpty()) {
+                Map<Object, Object> found = resolvers.get(entityType).resolve(entityType, keys);
+                // Missing keys are remembered as nulls
+                keys.forEach(key -> resolved.put(key, found.get(key)));
+            }
+            entry.getValue().forEach(assignment -> assignment.action.accept(resolved.get(assignment.primaryKey)));
+        }
+        pending.clear();
+    }
+
+    /**
+     * @param entityType type of Entity
+     * @param primaryKey primary key value
+     * @return true if the key was already looked up by this batch, whether the relation exists or not
+     */
+    public boolean isResolved(Class<?> entityType, Object primaryKey) {
+        Map<Object, Object> resolved = relations.get(entityType);
+        return resolved != null && resolved.containsKey(primaryKey);
+    }
+
+    /**
+     * Forget all the resolved relations and missing keys, pending assignments are discarded
+     */
+    public void clear() {
+        relations.clear();
+        resolvers.clear();
+        pending.clear();
+    }
+
+    private static class Assignment {
+
+        private final Object primaryKey;
+        private final Consumer<Object> action;
+
+        private Assignment(Object primaryKey, Consumer<Object> action) {
+            this.primaryKey = primaryKey;
+            this.action = action;
+        }
+    }
+}
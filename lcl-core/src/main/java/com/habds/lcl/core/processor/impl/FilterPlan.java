@@ -0,0 +1,140 @@
+package com.habds.lcl.core.processor.impl;
+
+import com.habds.lcl.core.annotation.Ignored;
+import com.habds.lcl.core.data.filter.*;
+import com.habds.lcl.core.data.filter.From;
+import com.habds.lcl.core.data.filter.impl.Equals;
+import com.habds.lcl.core.data.filter.impl.Null;
+import com.habds.lcl.core.data.filter.impl.Range;
+import com.habds.lcl.core.processor.Processor;
+import com.habds.lcl.core.processor.impl.util.ClassCache;
+import com.habds.lcl.core.processor.impl.util.Property;
+
+import java.util.*;
+
+/**
+ * Precompiled filtering plan of the DTO class used by {@link SimpleProcessor#createSpecs(Object)}.
+ * Holds filtering annotation decisions for each non-{@link Ignored} property, so building specs
+ * only reads DTO's values and creates {@link Filter}s for non-null ones.
+ *
+ * @param <DTO> type of filtering DTO
+ * @version 1
+ * @since 10/18/26 4:17 PM
+ */
+@SuppressWarnings("unchecked")
+public class FilterPlan<DTO> {
+
+    private final Class<DTO> dtoClass;
+    private final Entry<DTO>[] entries;
+    private final Map<String, Entry<DTO>> entriesByName = new HashMap<>();
+
+    public FilterPlan(Class<DTO> dtoClass, Processor processor) {
+        this.dtoClass = dtoClass;
+        List<Entry<DTO>> entries = new ArrayList<>();
+        ClassCache.getInstance().getAllProperties(dtoClass).forEach((name, property) -> {
+            if (!property.hasFieldAnnotation(Ignored.class)) {
+                entries.add(new Entry<>(property, processor.isProcessable(property.getType())));
+            }
+        });
+        this.entries = entries.toArray(new Entry[entries.size()]);
+        entries.forEach(entry -> entriesByName.put(entry.getName(), entry));
+    }
+
+    public Class<DTO> getDtoClass() {
+        return dtoClass;
+    }
+
+    public Entry<DTO>[] getEntries() {
+        return entries;
+    }
+
+    /**
+     * Get plan entry of the property
+     *
+     * @param name DTO's property name
+     * @return plan entry or null if property is ignored or absent
+     */
+    public Entry<DTO> getEntry(String name) {
+        return entriesByName.get(name);
+    }
+
+    /**
+     * Filtering decisions for a single DTO's property, taken from its annotations
+     *
+     * @param <DTO> type of filtering DTO
+     */
+    public static class Entry<DTO> {
+
+        private final Property<DTO, Object> property;
+        private final boolean processable;
+        private final From from;
+        private final To to;
+        private final Like like;
+        private final boolean in;
+        private final boolean isNull;
+        private final boolean isNotNull;
+        private final boolean not;
+
+        private Entry(Property<DTO, Object> property, boolean processable) {
+            this.property = property;
+            this.processable = processable;
+            this.from = property.getFieldAnnotation(From.class);
+            this.to = property.getFieldAnnotation(To.class);
+            this.like = property.getFieldAnnotation(Like.class);
+            this.in = property.hasFieldAnnotation(In.class);
+            this.isNull = property.hasFieldAnnotation(IsNull.class);
+            this.isNotNull = property.hasFieldAnnotation(IsNotNull.class);
+            this.not = property.hasFieldAnnotation(Not.class);
+        }
+
+        public String getName() {
+            return property.getName();
+        }
+
+        public Property<DTO, Object> getProperty() {
+            return property;
+        }
+
+        /**
+         * @return true if property type is DTO known to the processor, so equality filter
+         * on it is expanded into nested specs
+         */
+        public boolean isProcessable() {
+            return processable;
+        }
+
+        /**
+         * Create filter for the DTO's property value
+         *
+         * @param value property value
+         * @return filter or null if value is null
+         */
+        public Filter toFilter(Object value) {
+            if (value == null) {
+                return null;
+            }
+            Filter filter;
+            if (from != null) {
+                filter = from.exclusive() ? new Range<>().fromExclusive(value) : new Range<>(value, null);
+            } else if (to != null) {
+                filter = to.exclusive() ? new Range<>().toExclusive(value) : new Range<>(null, value);
+            } else if (like != null && value instanceof String) {
+                filter = new com.habds.lcl.core.data.filter.impl.Like((String) value, like.useLowerCase());
+            } else if (in && value instanceof Collection) {
+                filter = new com.habds.lcl.core.data.filter.impl.In((Collection<Object>) value);
+            } else if (in && value.getClass().isArray()) {
+                filter = new com.habds.lcl.core.data.filter.impl.In((Object[]) value);
+            } else if (isNull && value instanceof Boolean) {
+                filter = new Null((boolean) value);
+            } else if (isNotNull && value instanceof Boolean) {
+                filter = new Null((boolean) value).negate();
+            } else {
+                filter = new Equals(value);
+            }
+            if (not) {
+                filter.negate();
+            }
+            return filter;
+        }
+    }
+}
@@ -3,14 +3,24 @@ package com.habds.lcl.core.processor.impl;
 import com.habds.lcl.core.annotation.ClassLink;
 import com.habds.lcl.core.annotation.Ignored;
 import com.habds.lcl.core.annotation.Link;
+import com.habds.lcl.core.processor.FieldSelection;
 import com.habds.lcl.core.processor.GetterMapping;
 import com.habds.lcl.core.processor.LinkProcessor;
+import com.habds.lcl.core.processor.MappingContext;
 import com.habds.lcl.core.processor.SetterMapping;
 import com.habds.lcl.core.processor.impl.util.ClassCache;
+import com.habds.lcl.core.processor.impl.util.Property;
 
 import java.lang.reflect.Field;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Metadata class, creates and holds all mapping functions for Entity and DTO class fields
@@ -25,8 +35,9 @@ public class MappingMetadata<S, T> {
     private Class<S> entityClass;
     private Class<T> dtoClass;
 
-    private Map<String, GetterMapping> getterMappers = new HashMap<>();
-    private Map<String, SetterMapping> setterMappers = new HashMap<>();
+    private boolean usePathTrie;
+    // Published at once, so concurrent readers never see mappings of different configure() calls
+    private volatile Mappings<S, T> mappings;
 
     /**
      * Create metadata using specified DTO class, check if {@link ClassLink} annotation is present
@@ -48,16 +59,59 @@ public class MappingMetadata<S, T> {
     }
 
     /**
-     * Create link mapping functions for all dto class fields
+     * Create link mapping functions for all dto class fields,
+     * resolve DTO's constructor and property accessors
      */
     public void configure() {
-        ClassCache.getInstance().getAllFields(dtoClass).forEach((name, field) -> {
-            if (field.getAnnotation(Ignored.class) == null) {
-                String path = toDotPath(field);
-                getterMappers.put(name, linkProcessor.getterMapping(path, entityClass, field));
-                setterMappers.put(name, linkProcessor.setterMapping(path, entityClass, field));
+        Supplier<T> dtoConstructor = ClassCache.getInstance().getConstructor(dtoClass);
+        List<Field> fields = ClassCache.getInstance().getAllFields(dtoClass).values().stream()
+            .filter(field -> field.getAnnotation(Ignored.class) == null)
+            .collect(Collectors.toList());
+
+        String[] names = new String[fields.size()];
+        GetterMapping[] getters = new GetterMapping[fields.size()];
+        PrimitivePathGetterMapping[] primitiveGetters = new PrimitivePathGetterMapping[fields.size()];
+        SetterMapping[] setters = new SetterMapping[fields.size()];
+        PrimitiveSetterMapping[] primitiveSetters = new PrimitiveSetterMapping[fields.size()];
+        Function<T, Object>[] propertyGetters = new Function[fields.size()];
+        BiFunction<T, Object, Object>[] propertySetters = new BiFunction[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            String path = toDotPath(field);
+            names[i] = field.getName();
+            getters[i] = linkProcessor.getterMapping(path, entityClass, field);
+            if (getters[i] instanceof PrimitivePathGetterMapping) {
+                primitiveGetters[i] = (PrimitivePathGetterMapping) getters[i];
+            }
+            setters[i] = linkProcessor.setterMapping(path, entityClass, field);
+            if (setters[i] instanceof PrimitiveSetterMapping) {
+                primitiveSetters[i] = (PrimitiveSetterMapping) setters[i];
+            }
+            Property<T, Object> property = ClassCache.getInstance().getProperty(dtoClass, field.getName());
+            propertyGetters[i] = property.getter();
+            propertySetters[i] = property.setter();
+        }
+
+        PathTrie<S, T> pathTrie = null;
+        if (usePathTrie) {
+            pathTrie = new PathTrie<>();
+            for (int i = 0; i < getters.length; i++) {
+                pathTrie.add(getters[i], propertySetters[i]);
             }
-        });
+        }
+        mappings = new Mappings<>(dtoConstructor, names, getters, primitiveGetters, setters, primitiveSetters,
+            propertyGetters, propertySetters, pathTrie);
+    }
+
+    /**
+     * Enable or disable merging of all link paths into {@link PathTrie} during {@link MappingMetadata#configure()}.
+     * With path trie each shared intermediate Entity's property is read once per DTO and DTO properties
+     * under {@code null} intermediate value are left untouched.
+     *
+     * @param usePathTrie true to use path trie for filling DTOs
+     */
+    public void setUsePathTrie(boolean usePathTrie) {
+        this.usePathTrie = usePathTrie;
     }
 
     /**
@@ -82,11 +136,84 @@ public class MappingMetadata<S, T> {
      * @return DTO
      */
     public T setUpDTO(S entity) {
-        T dto = ClassCache.construct(this.dtoClass);
-        getterMappers.forEach((k, v) -> ClassCache.getInstance().setPropertyValue(dto, k, v.map(entity, dto)));
+        return setUpDTO(entity, null);
+    }
+
+    /**
+     * Instantiate a dto, register it within mapping context and fill it with data using {@code getterMappers}
+     * and specified Entity
+     *
+     * @param entity  Entity object, non-nullable
+     * @param context mapping context, nullable
+     * @return DTO
+     */
+    public T setUpDTO(S entity, MappingContext context) {
+        Mappings<S, T> mappings = configured();
+        T dto = createDTO(mappings, entity, context);
+        if (mappings.pathTrie != null) {
+            mappings.pathTrie.fill(entity, dto);
+            return dto;
+        }
+        for (int i = 0; i < mappings.getterMappers.length; i++) {
+            setUpProperty(mappings, entity, dto, i);
+        }
+        return dto;
+    }
+
+    /**
+     * Instantiate an empty dto and register it within mapping context
+     *
+     * @param entity  Entity object, non-nullable
+     * @param context mapping context, nullable
+     * @return DTO
+     */
+    public T createDTO(S entity, MappingContext context) {
+        return createDTO(configured(), entity, context);
+    }
+
+    private T createDTO(Mappings<S, T> mappings, S entity, MappingContext context) {
+        T dto = mappings.dtoConstructor.get();
+        if (context != null) {
+            context.put(entity, dtoClass, dto);
+        }
         return dto;
     }
 
+    /**
+     * Fill single DTO's property with data from specified Entity
+     *
+     * @param entity Entity object, non-nullable
+     * @param dto    DTO
+     * @param index  index of the property, see {@link SelectionPlan#getIndex(int)}
+     */
+    public void setUpProperty(S entity, T dto, int index) {
+        setUpProperty(configured(), entity, dto, index);
+    }
+
+    private void setUpProperty(Mappings<S, T> mappings, S entity, T dto, int i) {
+        PrimitivePathGetterMapping primitiveMapper = mappings.primitiveMappers[i];
+        if (primitiveMapper == null || !primitiveMapper.transfer(entity, dto)) {
+            mappings.dtoSetters[i].apply(dto, mappings.getterMappers[i].map(entity, dto));
+        }
+    }
+
+    /**
+     * Get compiled plan of filling only selected DTO's properties, plans are cached per distinct selection
+     *
+     * @param selection selected properties
+     * @return selection plan
+     * @throws IllegalArgumentException if any selected property is absent or ignored
+     */
+    public SelectionPlan getSelectionPlan(FieldSelection selection) {
+        Mappings<S, T> mappings = configured();
+        SelectionPlan plan = mappings.selectionPlans.get(selection);
+        if (plan == null) {
+            plan = new SelectionPlan(mappings.names, selection);
+            mappings.selectionPlans.putIfAbsent(selection, plan);
+        }
+        return plan;
+    }
+
     /**
      * Fill specified Entity with data from DTO using {@code setterMappers}
      *
@@ -95,11 +222,41 @@ public class MappingMetadata<S, T> {
      * @return Entity
      */
     public S setUpEntity(S entity, T dto) {
-        setterMappers.forEach((k, v) -> v.map(entity,
-            ClassCache.getInstance().getProperty((Class) dto.getClass(), k).getter().apply(dto)));
+        Mappings<S, T> mappings = configured();
+        for (int i = 0; i < mappings.setterMappers.length; i++) {
+            PrimitiveSetterMapping primitiveSetter = mappings.primitiveSetters[i];
+            if (primitiveSetter != null) {
+                primitiveSetter.transfer(entity, dto);
+            } else {
+                mappings.setterMappers[i].map(entity, mappings.dtoGetters[i].apply(dto));
+            }
+        }
         return entity;
     }
 
+    private Mappings<S, T> configured() {
+        Mappings<S, T> mappings = this.mappings;
+        if (mappings == null) {
+            throw new IllegalStateException("Mappings aren't configured for " + dtoClass);
+        }
+        return mappings;
+    }
+
+    /**
+     * @return names of the mapped (non-ignored) DTO's properties, in the order of their indices
+     */
+    public List<String> getPropertyNames() {
+        return Collections.unmodifiableList(Arrays.asList(configured().names));
+    }
+
+    /**
+     * @param index index of the property, see {@link MappingMetadata#getPropertyNames()}
+     * @return getter mapping of the DTO's property
+     */
+    public GetterMapping getGetterMapping(int index) {
+        return configured().getterMappers[index];
+    }
+
     public Class<S> getEntityClass() {
         return entityClass;
     }
@@ -107,4 +264,82 @@ public class MappingMetadata<S, T> {
     public Class<T> getDtoClass() {
         return dtoClass;
     }
+
+    /**
+     * Compiled mappings and DTO's property accessors, i-th element of each array belongs to the same DTO's property
+     */
+    private static class Mappings<S, T> {
+
+        private final Supplier<T> dtoConstructor;
+        private final String[] names;
+        private final GetterMapping[] getterMappers;
+        // Non-null for primitive properties which are transferred without boxing
+        private final PrimitivePathGetterMapping[] primitiveMappers;
+        private final SetterMapping[] setterMappers;
+        // Non-null for primitive properties which are transferred into Entity without boxing
+        private final PrimitiveSetterMapping[] primitiveSetters;
+        private final Function<T, Object>[] dtoGetters;
+        private final BiFunction<T, Object, Object>[] dtoSetters;
+        private final PathTrie<S, T> pathTrie;
+        private final Map<FieldSelection, SelectionPlan> selectionPlans = new ConcurrentHashMap<>();
+
+        private Mappings(Supplier<T> dtoConstructor, String[] names, GetterMapping[] getterMappers,
+                         PrimitivePathGetterMapping[] primitiveMappers, SetterMapping[] setterMappers,
+                         PrimitiveSetterMapping[] primitiveSetters,
+                         Function<T, Object>[] dtoGetters, BiFunction<T, Object, Object>[] dtoSetters,
+                         PathTrie<S, T> pathTrie) {
+            this.dtoConstructor = dtoConstructor;
+            this.names = names;
+            this.getterMappers = getterMappers;
+            this.primitiveMappers = primitiveMappers;
+            this.setterMappers = setterMappers;
+            this.primitiveSetters = primitiveSetters;
+            this.dtoGetters = dtoGetters;
+            this.dtoSetters = dtoSetters;
+            this.pathTrie = pathTrie;
+        }
+    }
+
+    /**
+     * Indices of the selected DTO's properties together with their nested selections
+     */
+    public static class SelectionPlan {
+
+        private final int[] indices;
+        private final FieldSelection[] nested;
+
+        private SelectionPlan(String[] names, FieldSelection selection) {
+            indices = new int[selection.getNames().size()];
+            nested = new FieldSelection[indices.length];
+            int i = 0;
+            for (String name : selection.getNames()) {
+                int index = Arrays.asList(names).indexOf(name);
+                if (index < 0) {
+                    throw new IllegalArgumentException("No such property to select: " + name);
+                }
+                indices[i] = index;
+                nested[i++] = selection.getNested(name);
+            }
+        }
+
+        public int size() {
+            return indices.length;
+        }
+
+        /**
+         * @param i number of the selected property
+         * @return index of the property within DTO's mappings
+         */
+        public int getIndex(int i) {
+            return indices[i];
+        }
+
+        /**
+         * @param i number of the selected property
+         * @return selection of nested DTO's properties, null for the whole property
+         */
+        public FieldSelection getNested(int i) {
+            return nested[i];
+        }
+    }
 }
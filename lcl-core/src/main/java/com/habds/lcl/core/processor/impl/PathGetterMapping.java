@@ -0,0 +1,56 @@
+package com.habds.lcl.core.processor.impl;
+
+import com.habds.lcl.core.processor.GetterMapping;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@link GetterMapping} of the whole resolved link path. Walks property getters of the path segments in a loop,
+ * stopping at the first {@code null}, and then applies the optional post mapping of the last resolved segment.
+ * Replaces the chain of per-segment mappings glued by {@link GetterMapping#andThen(GetterMapping)}.
+ *
+ * @version 1
+ * @since 10/18/26 4:08 PM
+ */
+@SuppressWarnings("unchecked")
+public class PathGetterMapping implements GetterMapping {
+
+    private final String[] names;
+    private final Function[] getters;
+    private final GetterMapping postMapping;
+
+    /**
+     * Create path mapping
+     *
+     * @param names       names of the path segments, in order
+     * @param getters     getters of the path segments, in order
+     * @param postMapping mapping applied to the value of the last segment (even if it is {@code null}), nullable
+     */
+    public PathGetterMapping(List<String> names, List<Function> getters, GetterMapping postMapping) {
+        this.names = names.toArray(new String[names.size()]);
+        this.getters = getters.toArray(new Function[getters.size()]);
+        this.postMapping = postMapping;
+    }
+
+    @Override
+    public Object map(Object entityProperty, Object dto) {
+        Object value = entityProperty;
+        for (int i = 0; i < getters.length && value != null; i++) {
+            value = getters[i].apply(value);
+        }
+        return postMapping == null ? value : postMapping.map(value, dto);
+    }
+
+    public String[] getNames() {
+        return names;
+    }
+
+    public Function[] getGetters() {
+        return getters;
+    }
+
+    public GetterMapping getPostMapping() {
+        return postMapping;
+    }
+}
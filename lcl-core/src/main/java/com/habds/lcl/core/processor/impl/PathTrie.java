@@ -0,0 +1,111 @@
+package com.habds.lcl.core.processor.impl;
+
+import com.habds.lcl.core.processor.GetterMapping;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Mapping plan merging link paths of all DTO's properties into a trie. Each shared intermediate property
+ * (like {@code personalData} in {@code personalData.name} and {@code personalData.gender}) is read once per Entity
+ * and the whole subtree is skipped when its value is {@code null}, so DTO properties under it keep
+ * their initial values.
+ * <p>
+ * Only {@link PathGetterMapping}s are merged, any other {@link GetterMapping} is applied to the Entity itself.
+ *
+ * @param <S> type of Entity
+ * @param <T> type of DTO
+ * @version 1
+ * @since 10/18/26 4:09 PM
+ */
+@SuppressWarnings("unchecked")
+public class PathTrie<S, T> {
+
+    private final Node root = new Node(null);
+
+    /**
+     * Add DTO property mapping into the trie
+     *
+     * @param mapping   getter mapping of the property
+     * @param dtoSetter setter of DTO's property
+     */
+    public void add(GetterMapping mapping, BiFunction<T, Object, ?> dtoSetter) {
+        if (!(mapping instanceof PathGetterMapping)) {
+            root.add(new Leaf(mapping, dtoSetter));
+            return;
+        }
+        PathGetterMapping path = (PathGetterMapping) mapping;
+        Node node = root;
+        for (int i = 0; i < path.getNames().length; i++) {
+            node = node.child(path.getNames()[i], path.getGetters()[i]);
+        }
+        node.add(new Leaf(path.getPostMapping(), dtoSetter));
+    }
+
+    /**
+     * Fill DTO with data from the Entity
+     *
+     * @param entity Entity, non-nullable
+     * @param dto    DTO
+     */
+    public void fill(S entity, T dto) {
+        root.fill(entity, dto);
+    }
+
+    private static class Node {
+
+        private final Function getter;
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        private Node[] childNodes = new Node[0];
+        private Leaf[] leaves = new Leaf[0];
+
+        private Node(Function getter) {
+            this.getter = getter;
+        }
+
+        private Node child(String name, Function getter) {
+            Node child = children.get(name);
+            if (child == null) {
+                child = new Node(getter);
+                children.put(name, child);
+                childNodes = children.values().toArray(new Node[children.size()]);
+            }
+            return child;
+        }
+
+        private void add(Leaf leaf) {
+            leaves = Arrays.copyOf(leaves, leaves.length + 1);
+            leaves[leaves.length - 1] = leaf;
+        }
+
+        private void fill(Object value, Object dto) {
+            for (Leaf leaf : leaves) {
+                leaf.fill(value, dto);
+            }
+            for (Node child : childNodes) {
+                Object childValue = child.getter.apply(value);
+                if (childValue != null) {
+                    child.fill(childValue, dto);
+                }
+            }
+        }
+    }
+
+    private static class Leaf {
+
+        private final GetterMapping postMapping;
+        private final BiFunction dtoSetter;
+
+        private Leaf(GetterMapping postMapping, BiFunction dtoSetter) {
+            this.postMapping = postMapping;
+            this.dtoSetter = dtoSetter;
+        }
+
+        private void fill(Object value, Object dto) {
+            dtoSetter.apply(dto, postMapping == null ? value : postMapping.map(value, dto));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.habds.lcl.core.processor.impl;
+
+import com.habds.lcl.core.processor.impl.util.Accessors;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * {@link PathGetterMapping} ending with Entity's field linked to DTO's field of the same primitive type,
+ * or of the corresponding wrapper (primitive) type, see {@link Accessors#isPrimitiveTransfer(Class, Class)}.
+ * Besides regular (boxing) {@link PathGetterMapping#map(Object, Object)} it can transfer the value straight
+ * into the DTO's field, without boxing it on read and unboxing on write.
+ *
+ * @version 1
+ * @since 10/18/26 4:20 PM
+ */
+@SuppressWarnings("unchecked")
+public class PrimitivePathGetterMapping extends PathGetterMapping {
+
+    private final Function[] intermediateGetters;
+    private final BiConsumer<Object, Object> transfer;
+
+    /**
+     * Create primitive path mapping
+     *
+     * @param names       names of the path segments, in order
+     * @param getters     getters of the path segments, in order
+     * @param entityField Entity's field of the last path segment
+     * @param dtoField    DTO's field of the same primitive type or its primitive counterpart
+     */
+    public PrimitivePathGetterMapping(List<String> names, List<Function> getters, Field entityField, Field dtoField) {
+        super(names, getters, null);
+        this.intermediateGetters = getters.subList(0, getters.size() - 1)
+            .toArray(new Function[getters.size() - 1]);
+        this.transfer = Accessors.transfer(entityField, dtoField);
+    }
+
+    /**
+     * Set value of the path directly into DTO's field
+     *
+     * @param entity Entity, non-nullable
+     * @param dto    DTO
+     * @return false if value wasn't transferred because of {@code null} intermediate value of the path
+     */
+    public boolean transfer(Object entity, Object dto) {
+        Object value = entity;
+        for (int i = 0; i < intermediateGetters.length; i++) {
+            value = intermediateGetters[i].apply(value);
+            if (value == null) {
+                return false;
+            }
+        }
+        transfer.accept(value, dto);
+        return true;
+    }
+}
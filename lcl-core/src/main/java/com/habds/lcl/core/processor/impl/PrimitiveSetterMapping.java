@@ -0,0 +1,50 @@
+package com.habds.lcl.core.processor.impl;
+
+import com.habds.lcl.core.processor.SetterMapping;
+import com.habds.lcl.core.processor.impl.util.Accessors;
+import com.habds.lcl.core.processor.impl.util.Property;
+
+import java.lang.reflect.Field;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link SetterMapping} of Entity's field linked to DTO's field of the same primitive type, or of the corresponding
+ * wrapper (primitive) type, see {@link Accessors#isPrimitiveTransfer(Class, Class)}.
+ * Besides regular (boxed) {@link SetterMapping#map(Object, Object)} it can transfer the value straight
+ * from the DTO's field into the Entity's one, without boxing it on read and unboxing on write.
+ *
+ * @version 1
+ * @since 10/18/26 4:20 PM
+ */
+@SuppressWarnings("unchecked")
+public class PrimitiveSetterMapping implements SetterMapping {
+
+    private final Property property;
+    private final BiConsumer<Object, Object> transfer;
+
+    /**
+     * Create primitive setter mapping
+     *
+     * @param property Entity's property
+     * @param dtoField DTO's field of the same primitive type or its primitive counterpart
+     */
+    public PrimitiveSetterMapping(Property property, Field dtoField) {
+        this.property = property;
+        this.transfer = Accessors.transfer(dtoField, property.getField());
+    }
+
+    @Override
+    public Object map(Object entity, Object dtoProperty) {
+        return property.setter().apply(entity, dtoProperty);
+    }
+
+    /**
+     * Set value of the DTO's field directly into Entity's field
+     *
+     * @param entity Entity
+     * @param dto    DTO
+     */
+    public void transfer(Object entity, Object dto) {
+        transfer.accept(dto, entity);
+    }
+}
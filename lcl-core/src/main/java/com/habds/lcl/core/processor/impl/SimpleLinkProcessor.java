@@ -8,6 +8,7 @@ import com.habds.lcl.core.processor.impl.ext.ArrayGetterPostMapping;
 import com.habds.lcl.core.processor.impl.ext.CollectionGetterPostMapping;
 import com.habds.lcl.core.processor.impl.ext.EnumPostMapping;
 import com.habds.lcl.core.processor.impl.ext.RecursionGetterPostMapping;
+import com.habds.lcl.core.processor.impl.util.Accessors;
 import com.habds.lcl.core.processor.impl.util.ClassCache;
 import com.habds.lcl.core.processor.impl.util.Property;
 
@@ -16,16 +17,15 @@ import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.Bindable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
  * Default {@link LinkProcessor} implementation. Uses dot as property separator.
  *
  * @author Yurii Smyrnov
- * @version 2
+ * @version 4
  * @since 12/1/2015 1:07 AM
  */
 @SuppressWarnings("unchecked")
@@ -35,6 +35,12 @@ public class SimpleLinkProcessor implements LinkProcessor<SimpleProcessor>,
     protected SimpleProcessor processor;
     protected List<GetterPostMapping> getterMappings = new ArrayList<>();
     protected List<SetterPostMapping> setterMappings = new ArrayList<>();
+    private static final SetterMapping NON_SETTING = (s, v) -> v;
+    private static final SetterMapping UNRESOLVED_NON_SETTING = (s, v) -> v;
+
+    private final Map<SetterKey, SetterMapping> setterMappingCache = new ConcurrentHashMap<>();
+    private final Map<PathKey, ResolvedPath> resolvedPaths = new ConcurrentHashMap<>();
+    private final Map<PathKey, Boolean> joinDecisions = new ConcurrentHashMap<>();
 
     public SimpleLinkProcessor() {
     }
@@ -47,6 +53,9 @@ public class SimpleLinkProcessor implements LinkProcessor<SimpleProcessor>,
     @Override
     public void configure(SimpleProcessor processor) {
         this.processor = processor;
+        this.setterMappingCache.clear();
+        this.resolvedPaths.clear();
+        this.joinDecisions.clear();
         this.getterMappings.addAll(Arrays.asList(new ArrayGetterPostMapping(), new CollectionGetterPostMapping(),
             new EnumPostMapping(), new RecursionGetterPostMapping()));
         this.setterMappings.add(new EnumPostMapping());
@@ -54,59 +63,60 @@ public class SimpleLinkProcessor implements LinkProcessor<SimpleProcessor>,
 
     @Override
     public GetterMapping getterMapping(String path, Class entityClass, Class dtoPropertyClass, Field dtoField) {
-        // If there are no chains remained, perform one last post-mapping if available
+        // If there are no chains at all, perform one last post-mapping if available
         if (path.isEmpty()) {
-            GetterMapping getterMapping = (s, t) -> s;
-            GetterMapping appliedPostMapping
-                = applyPostMapping(getterMapping, path, entityClass, dtoPropertyClass, dtoField);
-            return appliedPostMapping != null ? appliedPostMapping : getterMapping;
-        }
-
-        String[] splittedPath = path.split("\\.", 2);
-        String propertyName = splittedPath[0];
-        String remainingPath = splittedPath.length == 2 ? splittedPath[1] : "";
-
-        Class entityPropertyClass;
-        Function getter;
-        if (ClassCache.getInstance().hasProperty(entityClass, propertyName)) {
-            Property property = ClassCache.getInstance().getProperty(entityClass, propertyName);
-            entityPropertyClass = property.getType();
-            getter = property.getter();
-        } else if (ClassCache.getInstance().hasGetterMethod(entityClass, propertyName)) {
-            Method getterMethod = ClassCache.getInstance().getGetterMethod(entityClass, propertyName);
-            entityPropertyClass = getterMethod.getReturnType();
-            getter = (entity) -> ClassCache.invoke(entity, getterMethod);
-        } else {
-            throw new IllegalStateException("Cannot access " + propertyName + " from " + entityClass
-                + ", no such field or corresponding public getter method");
+            GetterMapping postMapping = postMapping(path, entityClass, dtoPropertyClass, dtoField);
+            return postMapping != null ? postMapping : (s, t) -> s;
         }
 
-        // Extract value
-        GetterMapping getterMapping = (s, t) -> s == null ? null : getter.apply(s);
+        List<String> names = new ArrayList<>();
+        List<Function> getters = new ArrayList<>();
+        Class currentClass = entityClass;
+        Field entityField = null;
+        String remainingPath = path;
+        while (!remainingPath.isEmpty()) {
+            String[] splittedPath = remainingPath.split("\\.", 2);
+            String propertyName = splittedPath[0];
+            remainingPath = splittedPath.length == 2 ? splittedPath[1] : "";
+            names.add(propertyName);
 
-        // Perform post-extracting mapping if available
-        GetterMapping appliedPostMapping
-            = applyPostMapping(getterMapping, remainingPath, entityPropertyClass, dtoPropertyClass, dtoField);
-        if (appliedPostMapping != null) {
-            return appliedPostMapping;
-        }
+            Class entityPropertyClass;
+            if (ClassCache.getInstance().hasProperty(currentClass, propertyName)) {
+                Property property = ClassCache.getInstance().getProperty(currentClass, propertyName);
+                entityPropertyClass = property.getType();
+                entityField = property.getField();
+                getters.add(property.getter());
+            } else if (ClassCache.getInstance().hasGetterMethod(currentClass, propertyName)) {
+                Method getterMethod = ClassCache.getInstance().getGetterMethod(currentClass, propertyName);
+                entityPropertyClass = getterMethod.getReturnType();
+                entityField = null;
+                getters.add(Accessors.getter(getterMethod));
+            } else {
+                throw new IllegalStateException("Cannot access " + propertyName + " from " + currentClass
+                    + ", no such field or corresponding public getter method");
+            }
 
-        // If there are more chains in the path, continue mapping
-        if (!remainingPath.isEmpty()) {
-            return getterMapping.andThen(
-                getterMapping(remainingPath, entityPropertyClass, dtoPropertyClass, dtoField));
+            // Post-extracting mapping takes care of the remaining path, if available
+            GetterMapping postMapping = postMapping(remainingPath, entityPropertyClass, dtoPropertyClass, dtoField);
+            if (postMapping != null) {
+                return new PathGetterMapping(names, getters, postMapping);
+            }
+            currentClass = entityPropertyClass;
         }
 
-        // Otherwise return extracted value
-        return getterMapping;
+        // Otherwise return extracted value, primitives are transferred into the DTO without boxing
+        if (entityField != null && dtoField != null
+            && Accessors.isPrimitiveTransfer(entityField.getType(), dtoField.getType())) {
+            return new PrimitivePathGetterMapping(names, getters, entityField, dtoField);
+        }
+        return new PathGetterMapping(names, getters, null);
     }
 
-    private GetterMapping applyPostMapping(GetterMapping getterMapping, String remainingPath, Class entityPropertyClass,
-                                           Class dtoPropertyClass, Field dtoField) {
+    private GetterMapping postMapping(String remainingPath, Class entityPropertyClass,
+                                      Class dtoPropertyClass, Field dtoField) {
         for (GetterPostMapping mapping : getterMappings) {
             if (mapping.isApplicable(remainingPath, entityPropertyClass, dtoPropertyClass, dtoField, this)) {
-                return getterMapping.andThen(
-                    mapping.getMapping(remainingPath, entityPropertyClass, dtoPropertyClass, dtoField, this));
+                return mapping.getMapping(remainingPath, entityPropertyClass, dtoPropertyClass, dtoField, this);
             }
         }
         return null;
@@ -117,14 +127,51 @@ public class SimpleLinkProcessor implements LinkProcessor<SimpleProcessor>,
         return getterMapping(path, entityClass, dtoField.getType(), dtoField);
     }
 
+    /**
+     * Get setter mapping for specified path. Compiled mappings are cached per Entity class, path and DTO's property,
+     * so they are shared by DTO merges and map merges. Only mappings of the whole resolved path are cached: keys
+     * of merged maps come from callers, so cache would grow with every invalid key. Middle of the path is cached
+     * once its remaining path is resolved on first use, path below a property with only getter method is never
+     * resolved and so never cached. Post mappings are responsible for the remaining path they are applicable to.
+     */
     @Override
     public SetterMapping setterMapping(String path, Class entityClass, Class dtoPropertyClass, Field dtoField) {
-        String propertyName = path.split("\\.", 2)[0];
+        SetterKey key = new SetterKey(entityClass, path, dtoPropertyClass, dtoField);
+        SetterMapping mapping = setterMappingCache.get(key);
+        if (mapping == null) {
+            mapping = compileSetterMapping(key);
+            if (isResolved(mapping)) {
+                SetterMapping existing = setterMappingCache.putIfAbsent(key, mapping);
+                if (existing != null) {
+                    mapping = existing;
+                }
+            }
+        }
+        return mapping;
+    }
+
+    private static boolean isResolved(SetterMapping mapping) {
+        if (mapping instanceof IntermediateSetterMapping) {
+            return ((IntermediateSetterMapping) mapping).isResolved();
+        }
+        return mapping != UNRESOLVED_NON_SETTING;
+    }
 
-        // If there are only getter method, just return non-setting mapping (prevent from exception)
-        if (!ClassCache.getInstance().hasProperty(entityClass, propertyName) &&
-            ClassCache.getInstance().hasGetterMethod(entityClass, propertyName)) {
-            return (s, v) -> v;
+    private SetterMapping compileSetterMapping(SetterKey key) {
+        String path = key.path;
+        Class entityClass = key.entityClass;
+        Class dtoPropertyClass = key.dtoPropertyClass;
+        Field dtoField = key.dtoField;
+        int separator = path.indexOf('.');
+        String propertyName = separator < 0 ? path : path.substring(0, separator);
+
+        if (!ClassCache.getInstance().hasProperty(entityClass, propertyName)) {
+            // If there are only getter method, just return non-setting mapping (prevent from exception)
+            if (ClassCache.getInstance().hasGetterMethod(entityClass, propertyName)) {
+                return separator < 0 ? NON_SETTING : UNRESOLVED_NON_SETTING;
+            }
+            throw new IllegalArgumentException(
+                "Invalid field for class=" + entityClass.getSimpleName() + ", name=" + propertyName);
         }
         Property property = ClassCache.getInstance().getProperty(entityClass, propertyName);
 
@@ -135,22 +182,14 @@ public class SimpleLinkProcessor implements LinkProcessor<SimpleProcessor>,
             }
         }
 
-        if (path.contains(".")) {
-            // Middle of the path:
-            // 1) Instantiate (call default constructor) for this intermediate value - only if it is null
-            // 2) Call this function recursively for the remaining property path
-
-            String remainingPath = path.substring(path.indexOf(".") + 1);
-            return (entity, dtoProperty) -> {
-                Object current = property.getter().apply(entity);
-                if (current == null) {
-                    current = ClassCache.construct(property.getType());
-                    property.setter().apply(entity, current);
-                }
-                return setterMapping(remainingPath, property.getType(), dtoField).map(current, dtoProperty);
-            };
+        if (separator >= 0) {
+            // Middle of the path: instantiate intermediate value if needed and proceed with the remaining path
+            return new IntermediateSetterMapping(key, property, path.substring(separator + 1));
         } else {
-            // End of the path: set value and return
+            // End of the path: set value and return, primitives are transferred from the DTO without boxing
+            if (dtoField != null && Accessors.isPrimitiveTransfer(dtoField.getType(), property.getType())) {
+                return new PrimitiveSetterMapping(property, dtoField);
+            }
             return (s, v) -> property.setter().apply(s, v);
         }
     }
@@ -167,41 +206,82 @@ public class SimpleLinkProcessor implements LinkProcessor<SimpleProcessor>,
 
     @Override
     public String getPath(Class dtoClass, String propertyName) {
-        String[] divided = propertyName.split("\\.", 2);
-        Field field = ClassCache.getInstance().getProperty(dtoClass, divided[0]).getField();
+        return resolvePath(dtoClass, propertyName).path;
+    }
+
+    /**
+     * Resolve Entity's dot-path of the DTO's property, resolved paths are cached
+     *
+     * @param dtoClass     DTO class
+     * @param propertyName DTO's property name, may be a dot-path through nested DTOs
+     * @return resolved Entity path
+     */
+    private ResolvedPath resolvePath(Class dtoClass, String propertyName) {
+        PathKey key = new PathKey(dtoClass, propertyName);
+        ResolvedPath resolved = resolvedPaths.get(key);
+        if (resolved == null) {
+            resolved = new ResolvedPath(toEntityPath(dtoClass, propertyName));
+            resolvedPaths.putIfAbsent(key, resolved);
+        }
+        return resolved;
+    }
+
+    private static String toEntityPath(Class dtoClass, String propertyName) {
+        int separator = propertyName.indexOf('.');
+        String name = separator < 0 ? propertyName : propertyName.substring(0, separator);
+        Field field = ClassCache.getInstance().getProperty(dtoClass, name).getField();
         String entityPath = MappingMetadata.toDotPath(field);
-        if (divided[0].equals(propertyName)) {
+        if (separator < 0) {
             return entityPath;
         }
-        return entityPath + "." + getPath(field.getType(), divided[1]);
+        return entityPath + "." + toEntityPath(field.getType(), propertyName.substring(separator + 1));
     }
 
     @Override
     public Path getJpaPath(Class dtoClass, String propertyName, Path path, CriteriaQuery query, CriteriaBuilder cb) {
-        String entityPath = getPath(dtoClass, propertyName);
+        String[] segments = resolvePath(dtoClass, propertyName).segments;
         if (path instanceof Root) {
-            return getJpaPath((Root) path, entityPath);
+            return getJpaPath((Root) path, segments);
+        }
+        return getJpaPath(path, segments, 0);
+    }
+
+    private Path getJpaPath(From from, String[] segments) {
+        for (int i = 0; i < segments.length; i++) {
+            if (!doJoin(from, segments[i])) {
+                return getJpaPath(from, segments, i);
+            }
+            from = join(from, segments[i]);
         }
-        return getJpaPath(path, entityPath);
+        return from;
     }
 
-    private static Path getJpaPath(From from, String property) {
-        String[] chains = property.split("\\.", 2);
-        if (doJoin(from, chains[0])) {
-            Join join = join(from, chains[0]);
-            return chains.length == 1 ? join : getJpaPath(join, chains[1]);
+    private static Path getJpaPath(Path path, String[] segments, int start) {
+        for (int i = start; i < segments.length; i++) {
+            path = path.get(segments[i]);
         }
-        Path path = from.get(chains[0]);
-        return chains.length == 1 ? path : getJpaPath(path, chains[1]);
+        return path;
     }
 
-    private static Path getJpaPath(Path path, String property) {
-        String[] chains = property.split("\\.", 2);
-        path = path.get(chains[0]);
-        return chains.length == 1 ? path : getJpaPath(path, chains[1]);
+    /**
+     * Decide whether attribute must be joined (non-basic and non-embedded attributes), decisions are cached
+     * per Java type of the path and attribute name
+     */
+    private boolean doJoin(From from, String chain) {
+        Class type = from.getJavaType();
+        if (type == null) {
+            return isJoinable(from, chain);
+        }
+        PathKey key = new PathKey(type, chain);
+        Boolean join = joinDecisions.get(key);
+        if (join == null) {
+            join = isJoinable(from, chain);
+            joinDecisions.putIfAbsent(key, join);
+        }
+        return join;
     }
 
-    private static boolean doJoin(From from, String chain) {
+    private static boolean isJoinable(From from, String chain) {
         Bindable model = from.get(chain).getModel();
         if (!(model instanceof Attribute)) {
             return false;
@@ -218,4 +298,129 @@ public class SimpleLinkProcessor implements LinkProcessor<SimpleProcessor>,
         }
         return from.join(chain, JoinType.LEFT);
     }
+
+    /**
+     * Setter mapping for the middle of the path:
+     * 1) Instantiate (call default constructor) intermediate value - only if it is null
+     * 2) Apply setter mapping of the remaining path, resolved on first use
+     * 3) Cache itself, once the whole path is resolved
+     */
+    private class IntermediateSetterMapping implements SetterMapping {
+
+        private final SetterKey key;
+        private final Property property;
+        private final String remainingPath;
+        private volatile SetterMapping next;
+        // Racy, repeated caching of the same mapping is harmless
+        private boolean cached;
+
+        private IntermediateSetterMapping(SetterKey key, Property property, String remainingPath) {
+            this.key = key;
+            this.property = property;
+            this.remainingPath = remainingPath;
+        }
+
+        private boolean isResolved() {
+            SetterMapping next = this.next;
+            return next != null && SimpleLinkProcessor.isResolved(next);
+        }
+
+        @Override
+        public Object map(Object entity, Object dtoProperty) {
+            Object current = property.getter().apply(entity);
+            if (current == null) {
+                current = ClassCache.construct(property.getType());
+                property.setter().apply(entity, current);
+            }
+            SetterMapping next = this.next;
+            if (next == null) {
+                next = setterMapping(remainingPath, property.getType(), key.dtoField);
+                this.next = next;
+            }
+            Object result = next.map(current, dtoProperty);
+            // Remaining path is resolved by now, unless it ends up below a property with only getter method
+            if (!cached && SimpleLinkProcessor.isResolved(next)) {
+                setterMappingCache.putIfAbsent(key, this);
+                cached = true;
+            }
+            return result;
+        }
+    }
+
+    private static final class SetterKey {
+
+        private final Class entityClass;
+        private final String path;
+        private final Class dtoPropertyClass;
+        private final Field dtoField;
+
+        private SetterKey(Class entityClass, String path, Class dtoPropertyClass, Field dtoField) {
+            this.entityClass = entityClass;
+            this.path = path;
+            this.dtoPropertyClass = dtoPropertyClass;
+            this.dtoField = dtoField;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SetterKey)) {
+                return false;
+            }
+            SetterKey key = (SetterKey) o;
+            return entityClass == key.entityClass && path.equals(key.path)
+                && dtoPropertyClass == key.dtoPropertyClass && Objects.equals(dtoField, key.dtoField);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 31 * entityClass.hashCode() + path.hashCode();
+            hash = 31 * hash + (dtoPropertyClass == null ? 0 : dtoPropertyClass.hashCode());
+            return 31 * hash + (dtoField == null ? 0 : dtoField.hashCode());
+        }
+    }
+
+    /**
+     * Entity's dot-path together with its segments, so JPA paths are built without string parsing
+     */
+    private static final class ResolvedPath {
+
+        private final String path;
+        private final String[] segments;
+
+        private ResolvedPath(String path) {
+            this.path = path;
+            this.segments = path.split("\\.");
+        }
+    }
+
+    private static final class PathKey {
+
+        private final Class clazz;
+        private final String name;
+
+        private PathKey(Class clazz, String name) {
+            this.clazz = clazz;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PathKey)) {
+                return false;
+            }
+            PathKey key = (PathKey) o;
+            return clazz == key.clazz && name.equals(key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * clazz.hashCode() + name.hashCode();
+        }
+    }
 }
@@ -1,36 +1,58 @@
 package com.habds.lcl.core.processor.impl;
 
 import com.habds.lcl.core.annotation.ClassLink;
-import com.habds.lcl.core.annotation.Ignored;
+import com.habds.lcl.core.data.FetchPlan;
+import com.habds.lcl.core.data.Projection;
 import com.habds.lcl.core.data.Specs;
 import com.habds.lcl.core.data.filter.*;
-import com.habds.lcl.core.data.filter.From;
 import com.habds.lcl.core.data.filter.impl.Equals;
-import com.habds.lcl.core.data.filter.impl.Null;
-import com.habds.lcl.core.data.filter.impl.Range;
+import com.habds.lcl.core.processor.DtoToEntityMerger;
+import com.habds.lcl.core.processor.EntityToDtoMapper;
+import com.habds.lcl.core.processor.FieldSelection;
 import com.habds.lcl.core.processor.LinkEstablishingException;
 import com.habds.lcl.core.processor.LinkProcessingException;
 import com.habds.lcl.core.processor.LinkProcessor;
+import com.habds.lcl.core.processor.MappingContext;
 import com.habds.lcl.core.processor.Processor;
+import com.habds.lcl.core.processor.RelationBatch;
 import com.habds.lcl.core.processor.impl.util.ClassCache;
 import com.habds.lcl.core.processor.impl.util.Property;
 
 import javax.persistence.criteria.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Default processor implementation. Requires calling {@link SimpleProcessor#configure()}
  * each time new classes will be added.
  * Uses {@link ClassCache} for extracting and storing class (both Entity and DTO) fields at configuration phase.
+ * <p>
+ * If {@link EntityToDtoMapper} or {@link DtoToEntityMerger} was generated for DTO at compile time
+ * (see {@code lcl-apt} module), it can be used instead of the runtime link mappings, once enabled by
+ * {@link SimpleProcessor#useGeneratedMappers(boolean)}. Generated code knows nothing about custom post mappings
+ * of the {@link LinkProcessor}, so keep it disabled if DTOs rely on them.
  *
  * @author Yurii Smyrnov
- * @version 1
+ * @version 2
  * @since 12/1/2015 12:10 AM
  */
 @SuppressWarnings("unchecked")
 public class SimpleProcessor implements Processor {
 
-    protected Map<Class, MappingMetadata> mappingMetadata = new HashMap<>();
+    protected Map<Class, MappingMetadata> mappingMetadata = new ConcurrentHashMap<>();
+    protected Map<Class, EntityToDtoMapper> generatedMappers = new ConcurrentHashMap<>();
+    protected Map<Class, DtoToEntityMerger> generatedMergers = new ConcurrentHashMap<>();
+    protected Map<Class, FilterPlan> filterPlans = new ConcurrentHashMap<>();
+    protected Map<Class, FetchPlan> fetchPlans = new ConcurrentHashMap<>();
+    // Empty for DTOs which can't be projected
+    protected Map<Class, Optional<Projection>> projections = new ConcurrentHashMap<>();
+    protected boolean useGeneratedMappers = false;
+    protected boolean usePathTrie = false;
+    protected Executor batchExecutor;
+    protected int batchThreshold;
+    protected final ThreadLocal<MappingContext> currentContext = new ThreadLocal<>();
+    protected final ThreadLocal<FieldSelection> currentSelection = new ThreadLocal<>();
+    protected final ThreadLocal<RelationBatch> currentBatch = new ThreadLocal<>();
     protected LinkProcessor linkProcessor;
 
     public SimpleProcessor() {
@@ -52,6 +74,7 @@ public class SimpleProcessor implements Processor {
             try {
                 MappingMetadata mappingMetadata = new MappingMetadata<>(linkProcessor, dto);
                 this.mappingMetadata.put(dto, mappingMetadata);
+                addGeneratedMappers(dto);
             } catch (Exception e) {
                 throw new LinkEstablishingException(dto, e);
             }
@@ -63,6 +86,81 @@ public class SimpleProcessor implements Processor {
         return add(Arrays.asList(dtos));
     }
 
+    /**
+     * Register mapper and merger generated at compile time for specified DTO, if there are any
+     *
+     * @param dto DTO class
+     * @see EntityToDtoMapper#generatedClassName(Class)
+     */
+    protected void addGeneratedMappers(Class<?> dto) {
+        Class<?> generatedClass;
+        try {
+            generatedClass = Class.forName(EntityToDtoMapper.generatedClassName(dto), true, dto.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return;
+        }
+        Object generated = ClassCache.construct(generatedClass);
+        if (generated instanceof EntityToDtoMapper) {
+            generatedMappers.put(dto, (EntityToDtoMapper) generated);
+        }
+        if (generated instanceof DtoToEntityMerger) {
+            generatedMergers.put(dto, (DtoToEntityMerger) generated);
+        }
+    }
+
+    /**
+     * Enable or disable usage of the mappers generated at compile time, disabled by default.
+     * Generated mappers bypass custom post mappings of the {@link LinkProcessor} and the path trie mapping plan
+     * (see {@link SimpleProcessor#usePathTrie(boolean)}).
+     *
+     * @param useGeneratedMappers true to use generated mappers where available,
+     *                            false to always use runtime link mappings
+     * @return this object
+     */
+    public SimpleProcessor useGeneratedMappers(boolean useGeneratedMappers) {
+        this.useGeneratedMappers = useGeneratedMappers;
+        return this;
+    }
+
+    /**
+     * Enable or disable mapping plan merging all link paths of DTO into a trie, so each shared intermediate
+     * Entity's property is read once per DTO. Disabled by default. Must be called before
+     * {@link SimpleProcessor#configure()}.
+     *
+     * @param usePathTrie true to use path trie mapping plan
+     * @return this object
+     * @see PathTrie
+     */
+    public SimpleProcessor usePathTrie(boolean usePathTrie) {
+        this.usePathTrie = usePathTrie;
+        return this;
+    }
+
+    /**
+     * Enable parallel mapping of Entity lists in {@link SimpleProcessor#process(List, Class)}. Lists not smaller
+     * than {@code threshold} are split into ordered chunks (one per available thread) mapped using specified
+     * executor, smaller lists are still mapped sequentially in the calling thread.
+     * <p>
+     * Links are evaluated outside of the persistence context thread, and {@code EntityManager} isn't thread-safe.
+     * So parallel mapping is safe only for Entity graphs that don't need lazy loading: either every relation
+     * reached by DTO links is already initialized (fetch joins, entity graphs) or Entities are detached
+     * and all the links read only their loaded state. Uninitialized lazy relations must not be touched,
+     * otherwise they are loaded concurrently through the same persistence context or fail.
+     *
+     * @param executor  executor to map chunks with, like {@link ForkJoinPool#commonPool()};
+     *                  {@code null} to disable parallel mapping (default)
+     * @param threshold minimal size of the list to be mapped in parallel
+     * @return this object
+     */
+    public SimpleProcessor parallelBatches(Executor executor, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        this.batchExecutor = executor;
+        this.batchThreshold = threshold;
+        return this;
+    }
+
     /**
      * (Re-)create link mappings for each MappingMetadata entry
      *
@@ -71,12 +169,17 @@ public class SimpleProcessor implements Processor {
      */
     public SimpleProcessor configure() {
         linkProcessor.configure(this);
+        filterPlans.clear();
+        fetchPlans.clear();
+        projections.clear();
         mappingMetadata.values().forEach(metadata -> {
             try {
+                metadata.setUsePathTrie(usePathTrie);
                 metadata.configure();
             } catch (Exception e) {
                 throw new LinkEstablishingException(metadata.getDtoClass(), e);
             }
+            getFilterPlan(metadata.getDtoClass());
         });
         return this;
     }
@@ -91,22 +194,147 @@ public class SimpleProcessor implements Processor {
         return mappingMetadata.get(dtoClass).getEntityClass();
     }
 
+    /**
+     * Create DTO from the specified Entity. Nested DTOs are created within the same {@link MappingContext},
+     * if the call is made inside {@link SimpleProcessor#process(Object, Class, MappingContext)}.
+     */
     @Override
     public <ENTITY, DTO> DTO process(ENTITY entity, Class<DTO> dtoClass) {
         if (entity == null) {
             return null;
         }
+        MappingContext context = currentContext.get();
+        FieldSelection selection = currentSelection.get();
+        if (context != null) {
+            DTO mapped = context.get(entity, dtoClass);
+            if (mapped != null) {
+                return mapped;
+            }
+        }
         MappingMetadata metadata = mappingMetadata.get(dtoClass);
         try {
             if (metadata == null) {
                 throw new IllegalArgumentException("No mapping found for dto: " + dtoClass);
             }
-            return (DTO) metadata.setUpDTO(entity);
+            // Generated mappers register DTOs only after they are filled, so they can't resolve cycles
+            EntityToDtoMapper mapper = useGeneratedMappers && context == null && selection == null
+                ? generatedMappers.get(dtoClass) : null;
+            if (mapper != null) {
+                return (DTO) mapper.map(entity, this);
+            }
+            if (selection != null) {
+                return (DTO) setUpDTO(metadata, entity, context, selection);
+            }
+            return (DTO) metadata.setUpDTO(entity, context);
         } catch (Exception e) {
             throw new LinkProcessingException(entity, dtoClass, e);
         }
     }
 
+    /**
+     * Create DTO from the specified Entity within mapping context. The context is bound to the current thread
+     * for the time of the call, so nested DTOs (see
+     * {@link com.habds.lcl.core.processor.impl.ext.RecursionGetterPostMapping}) are created within it as well.
+     * Compile-time generated mappers are not used within the context.
+     */
+    @Override
+    public <ENTITY, DTO> DTO process(ENTITY entity, Class<DTO> dtoClass, MappingContext context) {
+        MappingContext previous = currentContext.get();
+        currentContext.set(context);
+        try {
+            return process(entity, dtoClass);
+        } finally {
+            if (previous == null) {
+                currentContext.remove();
+            } else {
+                currentContext.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Create DTO from the specified Entity filling only selected properties. The selection is bound
+     * to the current thread for the time of the call, so nested DTOs get their nested selections.
+     * Compile-time generated mappers are not used for partial DTOs.
+     */
+    @Override
+    public <ENTITY, DTO> DTO process(ENTITY entity, Class<DTO> dtoClass, FieldSelection selection) {
+        FieldSelection previous = currentSelection.get();
+        currentSelection.set(selection);
+        try {
+            return process(entity, dtoClass);
+        } finally {
+            if (previous == null) {
+                currentSelection.remove();
+            } else {
+                currentSelection.set(previous);
+            }
+        }
+    }
+
+    private Object setUpDTO(MappingMetadata metadata, Object entity, MappingContext context,
+                            FieldSelection selection) {
+        MappingMetadata.SelectionPlan plan = metadata.getSelectionPlan(selection);
+        Object dto = metadata.createDTO(entity, context);
+        try {
+            for (int i = 0; i < plan.size(); i++) {
+                // Nested DTOs of the property are filled according to its nested selection
+                currentSelection.set(plan.getNested(i));
+                metadata.setUpProperty(entity, dto, plan.getIndex(i));
+            }
+        } finally {
+            currentSelection.set(selection);
+        }
+        return dto;
+    }
+
+    /**
+     * Create DTOs from the specified Entities, preserving the order.
+     * Mapped in parallel if enabled by {@link SimpleProcessor#parallelBatches(Executor, int)}.
+     */
+    @Override
+    public <ENTITY, DTO> List<DTO> process(List<ENTITY> entities, Class<DTO> dtoClass) {
+        Executor executor = batchExecutor;
+        // Mapping context and selection are bound to the calling thread, so lists are mapped sequentially
+        if (executor == null || entities.size() < batchThreshold
+            || currentContext.get() != null || currentSelection.get() != null) {
+            return Processor.super.process(entities, dtoClass);
+        }
+        int parallelism = executor instanceof ForkJoinPool
+            ? ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+        int chunkSize = (entities.size() + parallelism - 1) / parallelism;
+
+        List<CompletableFuture<List<DTO>>> chunks = new ArrayList<>();
+        for (int from = 0; from < entities.size(); from += chunkSize) {
+            List<ENTITY> chunk = entities.subList(from, Math.min(from + chunkSize, entities.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> Processor.super.process(chunk, dtoClass), executor));
+        }
+        List<DTO> result = new ArrayList<>(entities.size());
+        for (CompletableFuture<List<DTO>> chunk : chunks) {
+            try {
+                result.addAll(chunk.join());
+            } catch (CompletionException e) {
+                throw unwrap(e.getCause(), dtoClass);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Unwrap failure of the parallel chunk, so it is reported the same way as by sequential mapping:
+     * unchecked exceptions and errors are rethrown as they are, checked ones are wrapped like in
+     * {@link SimpleProcessor#process(Object, Class)}
+     */
+    private static RuntimeException unwrap(Throwable cause, Class<?> dtoClass) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new LinkProcessingException(null, dtoClass, cause);
+    }
+
     @Override
     public <ENTITY, DTO> ENTITY merge(ENTITY entity, DTO dto) {
         if (entity == null) {
@@ -117,6 +345,10 @@ public class SimpleProcessor implements Processor {
             if (metadata == null) {
                 throw new IllegalArgumentException("No mapping found for dto: " + dto.getClass());
             }
+            DtoToEntityMerger merger = useGeneratedMappers ? generatedMergers.get(dto.getClass()) : null;
+            if (merger != null) {
+                return (ENTITY) merger.merge(entity, dto, this);
+            }
             return (ENTITY) metadata.setUpEntity(entity, dto);
         } catch (Exception e) {
             throw new LinkProcessingException(entity, dto.getClass(), e);
@@ -133,14 +365,60 @@ public class SimpleProcessor implements Processor {
         return entity;
     }
 
+    /**
+     * Merge DTOs into Entities with relation lookups deferred: the batch is bound to the current thread
+     * while DTOs are merged, then all the collected primary keys are resolved and relations are assigned.
+     */
+    @Override
+    public <ENTITY, DTO> List<ENTITY> mergeAll(List<ENTITY> entities, List<DTO> dtos, RelationBatch batch) {
+        if (entities.size() != dtos.size()) {
+            throw new IllegalArgumentException("Number of Entities " + entities.size()
+                + " doesn't match number of DTOs " + dtos.size());
+        }
+        RelationBatch previous = currentBatch.get();
+        currentBatch.set(batch);
+        try {
+            for (int i = 0; i < entities.size(); i++) {
+                if (dtos.get(i) != null) {
+                    merge(entities.get(i), dtos.get(i));
+                }
+            }
+        } finally {
+            if (previous == null) {
+                currentBatch.remove();
+            } else {
+                currentBatch.set(previous);
+            }
+        }
+        batch.resolve();
+        return entities;
+    }
+
+    @Override
+    public RelationBatch getRelationBatch() {
+        return currentBatch.get();
+    }
+
     @Override
     public <ENTITY, DTO> ENTITY create(DTO dto) {
         if (dto == null) {
             return null;
         }
+        return merge(newEntity(dto), dto);
+    }
+
+    @Override
+    public <ENTITY, DTO> List<ENTITY> createAll(List<DTO> dtos, RelationBatch batch) {
+        List<ENTITY> entities = new ArrayList<>(dtos.size());
+        for (DTO dto : dtos) {
+            entities.add(dto == null ? null : newEntity(dto));
+        }
+        return mergeAll(entities, dtos, batch);
+    }
+
+    protected <ENTITY, DTO> ENTITY newEntity(DTO dto) {
         Class<ENTITY> entityClass = (Class<ENTITY>) dto.getClass().getAnnotation(ClassLink.class).value();
-        ENTITY entity = ClassCache.construct(entityClass);
-        return merge(entity, dto);
+        return ClassCache.construct(entityClass);
     }
 
     @Override
@@ -159,20 +437,20 @@ public class SimpleProcessor implements Processor {
     }
 
     public <ENTITY, DTO> Specs<ENTITY> createSpecs(DTO dto, Path path) {
+        FilterPlan<DTO> plan = getFilterPlan((Class<DTO>) dto.getClass());
         Specs<ENTITY> specs = (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
-            ClassCache.getInstance().getAllProperties(dto.getClass()).forEach((name, property) -> {
-                Filter filter = toFilter(dto, property);
-
-                Path current = path == null ? root : path;
-                if (filter != null && filter instanceof Equals && isProcessable(property.getType())) {
-                    Path next = linkProcessor.getJpaPath(dto.getClass(), name, current, query, cb);
-                    Specs<ENTITY> nestedSpecs = createSpecs(property.getter().apply(dto), next);
+            Path current = path == null ? root : path;
+            for (FilterPlan.Entry<DTO> entry : plan.getEntries()) {
+                Filter filter = toFilter(dto, entry.getProperty());
+                if (filter != null && filter instanceof Equals && entry.isProcessable()) {
+                    Path next = linkProcessor.getJpaPath(plan.getDtoClass(), entry.getName(), current, query, cb);
+                    Specs<ENTITY> nestedSpecs = createSpecs(entry.getProperty().getter().apply(dto), next);
                     predicates.add(nestedSpecs.buildPredicate(root, query, cb));
                 } else if (filter != null) {
-                    predicates.add(createPredicate(dto.getClass(), name, filter, current, root, query, cb));
+                    predicates.add(createPredicate(plan.getDtoClass(), entry.getName(), filter, current, root, query, cb));
                 }
-            });
+            }
             return cb.and(predicates.toArray(new Predicate[predicates.size()]));
         };
 
@@ -182,43 +460,38 @@ public class SimpleProcessor implements Processor {
         return specs;
     }
 
+    /**
+     * Get filtering plan of the DTO class, creating it on first use
+     *
+     * @param dtoClass filtering DTO class
+     * @param <DTO>    type of DTO
+     * @return filtering plan
+     */
+    public <DTO> FilterPlan<DTO> getFilterPlan(Class<DTO> dtoClass) {
+        FilterPlan<DTO> plan = filterPlans.get(dtoClass);
+        if (plan == null) {
+            plan = new FilterPlan<>(dtoClass, this);
+            FilterPlan<DTO> existing = filterPlans.putIfAbsent(dtoClass, plan);
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+        return plan;
+    }
 
-    @SuppressWarnings("ConstantConditions")
+    /**
+     * Create filter for DTO's property, called by {@link SimpleProcessor#createSpecs(Object, Path)} for each
+     * non-{@link com.habds.lcl.core.annotation.Ignored} property. By default filter is created according
+     * to the filtering plan of the DTO class.
+     *
+     * @param dto      filtering DTO
+     * @param property DTO's property
+     * @param <DTO>    type of DTO
+     * @return filter or null if property shouldn't be filtered by
+     */
     protected <DTO> Filter toFilter(DTO dto, Property<DTO, Object> property) {
-        if (property.hasFieldAnnotation(Ignored.class)) {
-            return null;
-        }
-        Object value = property.getter().apply(dto);
-        if (value == null) {
-            return null;
-        }
-        Filter filter;
-        if (property.hasFieldAnnotation(From.class)) {
-            From from = property.getFieldAnnotation(From.class);
-            filter = from.exclusive() ? new Range<>().fromExclusive(value) : new Range<>(value, null);
-        } else if (property.hasFieldAnnotation(To.class)) {
-            To to = property.getFieldAnnotation(To.class);
-            filter = to.exclusive() ? new Range<>().toExclusive(value) : new Range<>(null, value);
-        } else if (value instanceof String && property.hasFieldAnnotation(Like.class)) {
-            filter = new com.habds.lcl.core.data.filter.impl.Like(
-                (String) value, property.getFieldAnnotation(Like.class).useLowerCase());
-        } else if (property.hasFieldAnnotation(In.class) && value instanceof Collection) {
-            filter = new com.habds.lcl.core.data.filter.impl.In((Collection<Object>) value);
-        } else if (property.hasFieldAnnotation(In.class) && value.getClass().isArray()) {
-            filter = new com.habds.lcl.core.data.filter.impl.In((Object[]) value);
-        } else if (property.hasFieldAnnotation(IsNull.class)
-            && (value.getClass() == boolean.class || value.getClass() == Boolean.class)) {
-            filter = new Null((boolean) value);
-        } else if (property.hasFieldAnnotation(IsNotNull.class)
-            && (value.getClass() == boolean.class || value.getClass() == Boolean.class)) {
-            filter = new Null((boolean) value).negate();
-        } else {
-            filter = new Equals(value);
-        }
-        if (property.hasFieldAnnotation(Not.class)) {
-            filter.negate();
-        }
-        return filter;
+        FilterPlan.Entry<DTO> entry = getFilterPlan((Class<DTO>) dto.getClass()).getEntry(property.getName());
+        return entry == null ? null : entry.toFilter(property.getter().apply(dto));
     }
 
     protected <ENTITY, DTO> Predicate createPredicate(Class<DTO> targetClass, String path, Filter filter,
@@ -232,6 +505,39 @@ public class SimpleProcessor implements Processor {
         return new SimpleConverter(sourcePath);
     }
 
+    /**
+     * Get fetch plan of the DTO class, creating it on first use
+     */
+    @Override
+    public <ENTITY, DTO> FetchPlan<ENTITY> getFetchPlan(Class<DTO> dtoClass) {
+        FetchPlan<ENTITY> plan = fetchPlans.get(dtoClass);
+        if (plan == null) {
+            plan = FetchPlan.of(this, dtoClass);
+            FetchPlan<ENTITY> existing = fetchPlans.putIfAbsent(dtoClass, plan);
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Get projection of the DTO class, creating it on first use
+     */
+    @Override
+    public <ENTITY, DTO> Projection<ENTITY, DTO> getProjection(Class<DTO> dtoClass) {
+        Optional<Projection> projection = projections.get(dtoClass);
+        if (projection == null) {
+            try {
+                projection = Optional.of(Projection.of(mappingMetadata.get(dtoClass)));
+            } catch (IllegalArgumentException e) {
+                projection = Optional.empty();
+            }
+            projections.putIfAbsent(dtoClass, projection);
+        }
+        return projection.orElse(null);
+    }
+
     @Override
     public <DTO> String getPath(Class<DTO> dtoClass, String propertyName) {
         return linkProcessor.getPath(dtoClass, propertyName);
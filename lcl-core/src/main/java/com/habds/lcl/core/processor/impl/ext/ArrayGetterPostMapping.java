@@ -11,7 +11,7 @@ import java.lang.reflect.Field;
  * {@link GetterPostMapping} for array fields
  *
  * @author Yurii Smyrnov
- * @version 1
+ * @version 2
  * @since 2/2/16 11:01 PM
  */
 public class ArrayGetterPostMapping implements GetterPostMapping {
@@ -26,13 +26,14 @@ public class ArrayGetterPostMapping implements GetterPostMapping {
     public GetterMapping getMapping(String remainingPath,
                                     Class entityPropertyClass, Class dtoPropertyClass, Field dtoField,
                                     GetterPostMappingChain chain) {
+        Class<?> dtoElementType = dtoPropertyClass.getComponentType();
+        ElementMappingCache elementMappings = new ElementMappingCache(
+            elementClass -> chain.getterMapping(remainingPath, elementClass, dtoElementType, null));
         return (entityProperty, dto) -> {
             Object[] value = (Object[]) entityProperty;
-            Object[] targetProperty = (Object[]) Array.newInstance(dtoPropertyClass, value.length);
+            Object[] targetProperty = (Object[]) Array.newInstance(dtoElementType, value.length);
             for (int i = 0; i < value.length; i++) {
-                targetProperty[i] = chain
-                    .getterMapping(remainingPath, value[i].getClass(), dtoPropertyClass.getComponentType(), null)
-                    .map(value[i], dto);
+                targetProperty[i] = elementMappings.map(value[i], dto);
             }
             return targetProperty;
         };
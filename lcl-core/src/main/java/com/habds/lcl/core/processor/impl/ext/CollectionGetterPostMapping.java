@@ -4,18 +4,20 @@ import com.habds.lcl.core.annotation.Contains;
 import com.habds.lcl.core.processor.GetterMapping;
 import com.habds.lcl.core.processor.impl.GetterPostMapping;
 import com.habds.lcl.core.processor.impl.GetterPostMappingChain;
+import com.habds.lcl.core.processor.impl.util.Accessors;
 import com.habds.lcl.core.processor.impl.util.ClassCache;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
  * {@link GetterPostMapping} for collection fields. Handles elements customization specified by {@link Contains} annotation.
  *
  * @author Yurii Smyrnov
- * @version 1
+ * @version 2
  * @since 2/2/16 10:52 PM
  */
 @SuppressWarnings("unchecked")
@@ -35,17 +37,20 @@ public class CollectionGetterPostMapping implements GetterPostMapping {
         Class<?> dtoCollectionType = getDtoEmptyCollectionType(dtoField.getType());
         Contains annotation = dtoField.getAnnotation(Contains.class);
         Class<?> dtoElementType = annotation == null ? Object.class : annotation.value();
+        Function<Object, Collection> dtoGetter = Accessors.getter(dtoField);
+        ElementMappingCache elementMappings = new ElementMappingCache(
+            elementClass -> chain.getterMapping(remainingPath, elementClass, dtoElementType, null));
         return (entityProperty, dto) -> {
-                Collection collection = (Collection) ClassCache.getInstance()
-                    .getProperty((Class) dto.getClass(), dtoField.getName()).getter().apply(dto);
-                if (collection == null) {
-                    collection = (Collection) ClassCache.construct(dtoCollectionType);
-                }
+            Collection collection = dtoGetter.apply(dto);
+            if (collection == null) {
+                collection = (Collection) ClassCache.construct(dtoCollectionType);
+            }
+            if (entityProperty != null) {
                 for (Object element : (Collection) entityProperty) {
-                    collection.add(
-                        chain.getterMapping(remainingPath, element.getClass(), dtoElementType, null).map(element, dto));
+                    collection.add(elementMappings.map(element, dto));
                 }
-                return collection;
+            }
+            return collection;
         };
     }
 
@@ -0,0 +1,66 @@
+package com.habds.lcl.core.processor.impl.ext;
+
+import com.habds.lcl.core.processor.GetterMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache of element {@link GetterMapping}s of a single collection/array mapping, keyed by runtime class of the element.
+ * Element mapping is resolved once per element class, so polymorphic elements and proxies (which are subclasses
+ * of the declared element class) get their own mappings. The last used mapping is checked first, because
+ * in the vast majority of cases all the elements are of the same class.
+ *
+ * @version 1
+ * @since 10/18/26 4:13 PM
+ */
+class ElementMappingCache {
+
+    private final Function<Class, GetterMapping> resolver;
+    private final Map<Class, GetterMapping> mappings = new ConcurrentHashMap<>();
+    private volatile Entry last;
+
+    ElementMappingCache(Function<Class, GetterMapping> resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Map collection/array element
+     *
+     * @param element element, nullable
+     * @param dto     DTO being filled
+     * @return mapped element or {@code null} for {@code null} element
+     */
+    Object map(Object element, Object dto) {
+        return element == null ? null : get(element.getClass()).map(element, dto);
+    }
+
+    private GetterMapping get(Class elementClass) {
+        Entry entry = last;
+        if (entry != null && entry.elementClass == elementClass) {
+            return entry.mapping;
+        }
+        GetterMapping mapping = mappings.get(elementClass);
+        if (mapping == null) {
+            mapping = resolver.apply(elementClass);
+            GetterMapping existing = mappings.putIfAbsent(elementClass, mapping);
+            if (existing != null) {
+                mapping = existing;
+            }
+        }
+        last = new Entry(elementClass, mapping);
+        return mapping;
+    }
+
+    private static class Entry {
+
+        private final Class elementClass;
+        private final GetterMapping mapping;
+
+        private Entry(Class elementClass, GetterMapping mapping) {
+            this.elementClass = elementClass;
+            this.mapping = mapping;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.habds.lcl.core.processor.impl.ext;
 
+import com.habds.lcl.core.annotation.Reference;
+import com.habds.lcl.core.processor.Processor;
+import com.habds.lcl.core.processor.RelationBatch;
 import com.habds.lcl.core.processor.SetterMapping;
 import com.habds.lcl.core.processor.impl.SetterPostMapping;
 import com.habds.lcl.core.processor.impl.SetterPostMappingChain;
@@ -8,15 +11,28 @@ import com.habds.lcl.core.processor.impl.util.Property;
 
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.PersistenceUnitUtil;
 import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Abstract {@link SetterPostMapping} allowing to set entity's relation by searching for corresponding value
  * in the database by primary key. To active that {@link com.habds.lcl.core.annotation.Link} annotation must point to
- * this primary key of the relation
+ * this primary key of the relation.
+ * <p>
+ * Within {@link com.habds.lcl.core.processor.Processor#mergeAll(List, List, RelationBatch)} relations are
+ * assigned after the whole batch is merged, all the collected primary keys of the same Entity type are looked up
+ * at once by {@link JpaRelationSetterPostMapping#getRelationValues(Class, String, Collection)}.
+ * <p>
+ * Relations of the fields annotated with {@link Reference} (or of all the fields, if
+ * {@link JpaRelationSetterPostMapping#useReferences()}) are set by reference without loading,
+ * see {@link JpaRelationSetterPostMapping#getRelationReference(Class, Object)}.
  *
  * @author Yurii Smyrnov
- * @version 1
+ * @version 3
  * @since 3/24/16 2:36 PM
  */
 public abstract class JpaRelationSetterPostMapping implements SetterPostMapping {
@@ -34,9 +50,24 @@ public abstract class JpaRelationSetterPostMapping implements SetterPostMapping
     @Override
     public SetterMapping getMapping(String remainingPath, Property entityProperty,
                                     Class dtoPropertyClass, Field dtoField, SetterPostMappingChain chain) {
+        Class<?> entityType = entityProperty.getField().getType();
+        String idProperty = remainingPath.split("\\.")[1];
+        Processor processor = chain.getProcessor();
+        boolean reference = dtoField != null && dtoField.getAnnotation(Reference.class) != null;
         return (entity, dtoProperty) -> {
-            Object chainValue = dtoProperty == null
-                ? null : getRelationValue(entityProperty.getField().getType(), dtoProperty);
+            if (dtoProperty != null && (reference || useReferences())) {
+                Object relation = getRelationReference(entityType, dtoProperty);
+                entityProperty.setter().apply(entity, relation);
+                return relation;
+            }
+            RelationBatch batch = dtoProperty == null || processor == null ? null : processor.getRelationBatch();
+            if (batch != null) {
+                batch.assign(entityType, dtoProperty,
+                    (type, primaryKeys) -> getRelationValues(type, idProperty, primaryKeys),
+                    value -> entityProperty.setter().apply(entity, value));
+                return null;
+            }
+            Object chainValue = dtoProperty == null ? null : getRelationValue(entityType, dtoProperty);
             entityProperty.setter().apply(entity, chainValue);
             return chainValue;
         };
@@ -50,4 +81,56 @@ public abstract class JpaRelationSetterPostMapping implements SetterPostMapping
      * @return fetched relation or null if it doesn't exist
      */
     protected abstract Object getRelationValue(Class<?> entityType, Object primaryKey);
+
+    /**
+     * Get relation by reference, without fetching. By default the relation is fetched.
+     *
+     * @param entityType type of entity
+     * @param primaryKey primary key value, non-null
+     * @return reference to the relation
+     */
+    protected Object getRelationReference(Class<?> entityType, Object primaryKey) {
+        return getRelationValue(entityType, primaryKey);
+    }
+
+    /**
+     * @return true to set relations of all the fields by reference, false (default) for annotated fields only
+     */
+    protected boolean useReferences() {
+        return false;
+    }
+
+    /**
+     * Perform fetching of several relations of the same type, by default one by one
+     *
+     * @param entityType  type of entity to fetch
+     * @param idProperty  name of the primary key property
+     * @param primaryKeys distinct primary key values, non-empty
+     * @return fetched relations by primary key, missing relations are absent
+     */
+    protected Map<Object, Object> getRelationValues(Class<?> entityType, String idProperty,
+                                                    Collection<Object> primaryKeys) {
+        Map<Object, Object> relations = new HashMap<>();
+        for (Object primaryKey : primaryKeys) {
+            Object relation = getRelationValue(entityType, primaryKey);
+            if (relation != null) {
+                relations.put(primaryKey, relation);
+            }
+        }
+        return relations;
+    }
+
+    /**
+     * Index fetched relations by their primary keys. Keys are read by the persistence provider,
+     * since the id field of uninitialized proxy (e.g. one got by reference) isn't populated.
+     *
+     * @param util      persistence unit util of the relations' persistence unit
+     * @param relations fetched entities
+     * @return relations by primary key
+     */
+    protected static Map<Object, Object> byPrimaryKey(PersistenceUnitUtil util, Iterable<?> relations) {
+        Map<Object, Object> result = new HashMap<>();
+        relations.forEach(relation -> result.put(util.getIdentifier(relation), relation));
+        return result;
+    }
 }
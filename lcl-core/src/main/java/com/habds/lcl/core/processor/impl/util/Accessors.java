@@ -0,0 +1,234 @@
+package com.habds.lcl.core.processor.impl.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Factory of accessor functions for fields, getter methods and no-arg constructors.
+ * Accessors are backed by {@link MethodHandle}s resolved once, so the reflective lookup and access checks
+ * are not repeated on every call. Plain reflection is used as a fallback when a method handle
+ * cannot be obtained (for example for final fields).
+ *
+ * @version 3
+ * @since 10/18/26 3:59 PM
+ */
+@SuppressWarnings("unchecked")
+public final class Accessors {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType TRANSFER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private Accessors() {
+    }
+
+    /**
+     * Create getter function for specified field
+     *
+     * @param field field, will be made accessible
+     * @param <T>   type of object holding the field
+     * @param <P>   type of field value
+     * @return getter function
+     */
+    public static <T, P> Function<T, P> getter(Field field) {
+        field.setAccessible(true);
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            return o -> {
+                try {
+                    return (P) field.get(o);
+                } catch (IllegalAccessException ex) {
+                    throw new RuntimeException(ex);
+                }
+            };
+        }
+        return o -> {
+            try {
+                return (P) (Object) handle.invokeExact((Object) o);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    /**
+     * Create setter function for specified field
+     *
+     * @param field field, will be made accessible
+     * @param <T>   type of object holding the field
+     * @param <P>   type of field value
+     * @return setter function
+     */
+    public static <T, P> BiConsumer<T, P> setter(Field field) {
+        field.setAccessible(true);
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            return (o, p) -> {
+                try {
+                    field.set(o, p);
+                } catch (IllegalAccessException ex) {
+                    throw new RuntimeException(ex);
+                }
+            };
+        }
+        return (o, p) -> {
+            try {
+                handle.invokeExact((Object) o, (Object) p);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    /**
+     * Check if value of the source type can be transferred by {@link Accessors#transfer(Field, Field)}
+     * without intermediate boxing: types are the same primitive, or a primitive and its wrapper
+     *
+     * @param source type of the source field
+     * @param target type of the target field
+     * @return true if transfer between types avoids boxing
+     */
+    public static boolean isPrimitiveTransfer(Class<?> source, Class<?> target) {
+        return (source.isPrimitive() || target.isPrimitive()) && wrap(source) == wrap(target);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    /**
+     * Create function copying value of the source field into the target field of the same type, or of
+     * the primitive (wrapper) type corresponding to the wrapper (primitive) source type.
+     * Getter and setter method handles are combined, so primitive values are passed directly without boxing.
+     * Wrapper is unboxed straight into the primitive field ({@link NullPointerException} for {@code null}),
+     * primitive is boxed once into the wrapper field.
+     *
+     * @param source field to be read, will be made accessible
+     * @param target field to be written, will be made accessible
+     * @param <S>    type of object holding the source field
+     * @param <T>    type of object holding the target field
+     * @return transfer function accepting source and target objects
+     * @throws IllegalArgumentException when types of the fields are neither the same nor primitive counterparts
+     */
+    public static <S, T> BiConsumer<S, T> transfer(Field source, Field target) {
+        if (source.getType() != target.getType() && !isPrimitiveTransfer(source.getType(), target.getType())) {
+            throw new IllegalArgumentException("Cannot transfer " + source + " into " + target);
+        }
+        source.setAccessible(true);
+        target.setAccessible(true);
+        MethodHandle handle;
+        try {
+            MethodHandle getter = LOOKUP.unreflectGetter(source)
+                .asType(MethodType.methodType(target.getType(), source.getDeclaringClass()));
+            MethodHandle setter = LOOKUP.unreflectSetter(target);
+            // (target, source) -> target.field = source.field, then swap arguments to (source, target)
+            MethodHandle combined = MethodHandles.filterArguments(setter, 1, getter);
+            handle = MethodHandles.permuteArguments(combined,
+                MethodType.methodType(void.class, source.getDeclaringClass(), target.getDeclaringClass()), 1, 0)
+                .asType(TRANSFER_TYPE);
+        } catch (IllegalAccessException e) {
+            return (s, t) -> {
+                try {
+                    target.set(t, source.get(s));
+                } catch (IllegalAccessException ex) {
+                    throw new RuntimeException(ex);
+                }
+            };
+        }
+        return (s, t) -> {
+            try {
+                handle.invokeExact((Object) s, (Object) t);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    /**
+     * Create getter function for specified public no-arg method
+     *
+     * @param method getter method
+     * @param <T>    type of object declaring the method
+     * @param <P>    return type of the method
+     * @return getter function
+     */
+    public static <T, P> Function<T, P> getter(Method method) {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflect(method).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            return o -> (P) ClassCache.invoke(o, method);
+        }
+        return o -> {
+            try {
+                return (P) (Object) handle.invokeExact((Object) o);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    /**
+     * Create factory function calling default (no-arg) constructor of the specified class.
+     * Like {@link ClassCache#construct(Class)} always did, any failure (absence of the constructor included)
+     * is reported on instantiation as {@link RuntimeException} wrapping the reflective exception,
+     * exceptions thrown by the constructor itself are wrapped into {@link InvocationTargetException}.
+     *
+     * @param clazz class to be instantiated
+     * @param <T>   type of class
+     * @return factory function
+     */
+    public static <T> Supplier<T> constructor(Class<T> clazz) {
+        Constructor<T> constructor;
+        try {
+            constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (Exception e) {
+            return () -> {
+                throw new RuntimeException(e);
+            };
+        }
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+        } catch (IllegalAccessException e) {
+            return () -> {
+                try {
+                    return constructor.newInstance();
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+            };
+        }
+        return () -> {
+            try {
+                return (T) (Object) handle.invokeExact();
+            } catch (Throwable e) {
+                throw new RuntimeException(new InvocationTargetException(e));
+            }
+        };
+    }
+}
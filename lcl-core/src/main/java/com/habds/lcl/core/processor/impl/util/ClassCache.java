@@ -1,21 +1,25 @@
 package com.habds.lcl.core.processor.impl.util;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
- * Cached information about class fields and properties
+ * Cached information about class fields and properties.
+ * Safe for concurrent use: caches are concurrent maps holding immutable per-class snapshots, so reads never lock
+ * and lazy population from request threads can't corrupt them. Concurrent population of the same class may
+ * compute its metadata twice, which is harmless as results are equivalent.
  *
  * @author Yurii Smyrnov
- * @version 1
+ * @version 2
  * @since 12/1/2015 1:38 AM
  */
 @SuppressWarnings("unchecked")
@@ -24,11 +28,13 @@ public class ClassCache {
     private static final ClassCache INSTANCE = new ClassCache();
 
     // Cached fields for all classes visited this object
-    private Map<Class, Map<String, Field>> classFields = new HashMap<>();
+    private Map<Class, Map<String, Field>> classFields = new ConcurrentHashMap<>();
     // Cached getters (getXXX() or isXXX() for boolean return type) for all classes visited this object
-    private Map<Class, Map<String, Method>> classGetters = new HashMap<>();
+    private Map<Class, Map<String, Method>> classGetters = new ConcurrentHashMap<>();
     // Cached properties
-    private Map<Class, Map<String, Property>> classProperties = new HashMap<>();
+    private Map<Class, Map<String, Property>> classProperties = new ConcurrentHashMap<>();
+    // Cached default constructors
+    private Map<Class, Supplier> classConstructors = new ConcurrentHashMap<>();
 
     private ClassCache() {
     }
@@ -38,13 +44,20 @@ public class ClassCache {
     }
 
     public static <T> T construct(Class<T> clazz) {
-        try {
-            Constructor<T> constructor = clazz.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            return constructor.newInstance();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return INSTANCE.getConstructor(clazz).get();
+    }
+
+    /**
+     * Get factory function calling default constructor of the specified class
+     *
+     * @param clazz class
+     * @param <T>   type of class
+     * @return cached factory function
+     * @see Accessors#constructor(Class)
+     */
+    public <T> Supplier<T> getConstructor(Class<T> clazz) {
+        Supplier<T> constructor = classConstructors.get(clazz);
+        return constructor != null ? constructor : classConstructors.computeIfAbsent(clazz, Accessors::constructor);
     }
 
     public static Object invoke(Object o, Method method, Object... args) {
@@ -56,57 +69,55 @@ public class ClassCache {
     }
 
     public <S, P> Property<S, P> getProperty(Class<S> clazz, String propertyName) {
-        return classProperties
-            // initialize map for each class if it is absent
-            .computeIfAbsent(clazz, c -> new HashMap<>())
-            // create a Property object if it is absent
-            .computeIfAbsent(propertyName, p -> new Property<>(clazz, p));
+        // Plain get first: computeIfAbsent of ConcurrentHashMap may lock even if the value is present
+        Map<String, Property> properties = classProperties.get(clazz);
+        if (properties == null) {
+            properties = classProperties.computeIfAbsent(clazz, c -> new ConcurrentHashMap<>());
+        }
+        Property<S, P> property = properties.get(propertyName);
+        if (property == null) {
+            property = properties.computeIfAbsent(propertyName, p -> new Property<>(clazz, p));
+        }
+        return property;
     }
 
     public <S> boolean hasProperty(Class<S> clazz, String propertyName) {
-        // Optimize this method
-        try {
-            return getProperty(clazz, propertyName) != null;
-        } catch (RuntimeException e) {
-            return false;
-        }
+        return getAllFields(clazz).containsKey(propertyName);
     }
 
     public void setPropertyValue(Object bean, String name, Object value) {
-        try {
-            classFields.get(bean.getClass()).get(name).set(bean, value);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        getProperty((Class<Object>) bean.getClass(), name).setter().apply(bean, value);
     }
 
     public Map<String, Field> getAllFields(Class clazz) {
-        if (classFields.containsKey(clazz)) {
-            return classFields.get(clazz);
+        Map<String, Field> fields = classFields.get(clazz);
+        if (fields == null) {
+            cacheFieldsAndMethods(clazz);
+            fields = classFields.get(clazz);
         }
-        cacheFieldsAndMethods(clazz);
-        return classFields.get(clazz);
+        return fields;
     }
 
     public Map<String, Method> getAllGetters(Class clazz) {
-        if (classGetters.containsKey(clazz)) {
-            return classGetters.get(clazz);
+        Map<String, Method> getters = classGetters.get(clazz);
+        if (getters == null) {
+            cacheFieldsAndMethods(clazz);
+            getters = classGetters.get(clazz);
         }
-        cacheFieldsAndMethods(clazz);
-        return classGetters.get(clazz);
+        return getters;
     }
 
     public boolean hasGetterMethod(Class clazz, String propertyName) {
-        return classGetters.get(clazz).containsKey(propertyName);
+        return getAllGetters(clazz).containsKey(propertyName);
     }
 
     public Method getGetterMethod(Class clazz, String propertyName) {
-        return classGetters.get(clazz).get(propertyName);
+        return getAllGetters(clazz).get(propertyName);
     }
 
     public Map<String, Property> getAllProperties(Class clazz) {
-        return getAllFields(clazz).entrySet().stream()
-            .collect(Collectors.toMap(Map.Entry::getKey, e -> new Property(clazz, e.getKey())));
+        return getAllFields(clazz).keySet().stream()
+            .collect(Collectors.toMap(Function.identity(), name -> getProperty(clazz, name)));
     }
 
     public void cacheFieldsAndMethods(Class clazz) {
@@ -116,12 +127,14 @@ public class ClassCache {
         if (clazz.getSuperclass() != null && !clazz.getSuperclass().equals(Object.class)) {
             fields.putAll(getAllFields(clazz.getSuperclass()));
         }
-        classFields.put(clazz, fields);
 
         Map<String, Method> methods = Arrays.asList(clazz.getMethods()).stream()
             .filter(this::isGetter)
             .collect(Collectors.toMap(this::getPropertyNameFromGetter, Function.identity(), new MethodMerger()));
-        classGetters.put(clazz, methods);
+
+        // Publish immutable snapshots, getters first: presence of fields means the class is fully cached
+        classGetters.put(clazz, Collections.unmodifiableMap(methods));
+        classFields.put(clazz, Collections.unmodifiableMap(fields));
     }
 
     private boolean isGetter(Method method) {
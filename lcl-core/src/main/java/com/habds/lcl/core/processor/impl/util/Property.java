@@ -2,6 +2,7 @@ package com.habds.lcl.core.processor.impl.util;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -27,15 +28,10 @@ public class Property<T, P> {
             throw new IllegalArgumentException("Invalid field for class=" + clazz.getSimpleName() + ", name=" + name);
         }
 
-        getter = o -> {
-            try {
-                return (P) this.field.get(o);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
-        };
+        getter = Accessors.getter(field);
+        BiConsumer<T, P> fieldSetter = Accessors.setter(field);
         setter = (o, p) -> {
-            ClassCache.getInstance().setPropertyValue(o, name, p);
+            fieldSetter.accept(o, p);
             return p;
         };
     }
@@ -0,0 +1,37 @@
+package com.habds.lcl.core.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test of {@link EntityManagerRepository} logic not touching the database
+ *
+ * @version 1
+ * @since 10/18/26 4:50 PM
+ */
+public class EntityManagerRepositoryTest {
+
+    private final EntityManagerRepository repository = new EntityManagerRepository();
+
+    @Test
+    public void testProvenTotal() {
+        // Short page proves the total
+        assertEquals(Long.valueOf(3), repository.getProvenTotal(new PagingAndSorting(0, 10), 3));
+        assertEquals(Long.valueOf(24), repository.getProvenTotal(new PagingAndSorting(2, 10), 4));
+        // Empty first page proves there is nothing
+        assertEquals(Long.valueOf(0), repository.getProvenTotal(new PagingAndSorting(0, 10), 0));
+        // Unpaged list is the whole result
+        assertEquals(Long.valueOf(7), repository.getProvenTotal(new PagingAndSorting(), 7));
+        assertEquals(Long.valueOf(0), repository.getProvenTotal(new PagingAndSorting(), 0));
+    }
+
+    @Test
+    public void testTotalMustBeCounted() {
+        // Full page may be followed by other rows
+        assertNull(repository.getProvenTotal(new PagingAndSorting(0, 10), 10));
+        assertNull(repository.getProvenTotal(new PagingAndSorting(3, 10), 10));
+        // Empty page beyond the end says nothing about the rows before it
+        assertNull(repository.getProvenTotal(new PagingAndSorting(2, 10), 0));
+    }
+}
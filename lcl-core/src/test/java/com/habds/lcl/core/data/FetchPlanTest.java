@@ -0,0 +1,151 @@
+package com.habds.lcl.core.data;
+
+import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.annotation.Contains;
+import com.habds.lcl.core.annotation.Ignored;
+import com.habds.lcl.core.annotation.Link;
+import com.habds.lcl.core.processor.impl.SimpleProcessor;
+import org.junit.Test;
+
+import javax.persistence.ElementCollection;
+import javax.persistence.Embedded;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test of fetch plans derived from DTO's links
+ *
+ * @version 1
+ * @since 10/18/26 4:28 PM
+ */
+public class FetchPlanTest {
+
+    private final SimpleProcessor processor = new SimpleProcessor()
+        .add(Arrays.asList(OrderDto.class, LineDto.class, CustomerDto.class, OrderNumberDto.class,
+            ShipmentDto.class)).configure();
+
+    @Test
+    public void testRelationsOfNestedDtos() {
+        FetchPlan<Order> plan = processor.getFetchPlan(OrderDto.class);
+        assertEquals(Order.class, plan.getEntityClass());
+        // Tags are under the second collection of the path, so they are left lazy
+        assertEquals(new LinkedHashSet<>(Arrays.asList("customer", "customer.region", "lines", "lines.product",
+            "labels")), plan.getPaths());
+        assertTrue(plan.hasCollections());
+        assertSame(plan, processor.getFetchPlan(OrderDto.class));
+    }
+
+    @Test
+    public void testSingleValuedRelations() {
+        FetchPlan<Customer> plan = processor.getFetchPlan(CustomerDto.class);
+        // Referred customer is mapped into the same DTO, which isn't expanded again
+        assertEquals(new LinkedHashSet<>(Arrays.asList("region", "referrer")), plan.getPaths());
+        assertFalse(plan.hasCollections());
+    }
+
+    @Test
+    public void testNothingToFetch() {
+        FetchPlan<Order> plan = processor.getFetchPlan(OrderNumberDto.class);
+        assertTrue(plan.isEmpty());
+        assertFalse(plan.hasCollections());
+    }
+
+    @Test
+    public void testRelationsInsideEmbeddablesAreSkipped() {
+        // Only relation fields of Entities are detected, relations inside embeddables stay lazy
+        assertTrue(processor.getFetchPlan(ShipmentDto.class).isEmpty());
+    }
+
+    public static class Order {
+        private String number;
+        @ManyToOne
+        private Customer customer;
+        @OneToMany
+        private List<Line> lines;
+        @ElementCollection
+        private Set<String> labels;
+    }
+
+    public static class Customer {
+        private String name;
+        @ManyToOne
+        private Region region;
+        @ManyToOne
+        private Customer referrer;
+    }
+
+    public static class Region {
+        private String name;
+    }
+
+    public static class Line {
+        private int quantity;
+        @ManyToOne
+        private Product product;
+    }
+
+    public static class Product {
+        private String name;
+        @OneToMany
+        private List<Tag> tags;
+    }
+
+    public static class Tag {
+        private String name;
+    }
+
+    @ClassLink(Order.class)
+    public static class OrderDto {
+        private String number;
+        @Link("customer.name")
+        private String customerName;
+        @Link("customer.region.name")
+        private String region;
+        @Contains(LineDto.class)
+        private List<LineDto> lines;
+        private Set<String> labels;
+        @Ignored
+        private CustomerDto customer;
+    }
+
+    @ClassLink(Line.class)
+    public static class LineDto {
+        private int quantity;
+        @Link("product.name")
+        private String productName;
+        @Link("product.tags.name")
+        private List<String> tags;
+    }
+
+    @ClassLink(Customer.class)
+    public static class CustomerDto {
+        private String name;
+        @Link("region.name")
+        private String region;
+        private CustomerDto referrer;
+    }
+
+    @ClassLink(Order.class)
+    public static class OrderNumberDto {
+        private String number;
+    }
+
+    public static class Shipment {
+        @Embedded
+        private Address address;
+    }
+
+    public static class Address {
+        @ManyToOne
+        private Region region;
+    }
+
+    @ClassLink(Shipment.class)
+    public static class ShipmentDto {
+        @Link("address.region.name")
+        private String region;
+    }
+}
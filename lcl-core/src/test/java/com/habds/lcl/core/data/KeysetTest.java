@@ -0,0 +1,87 @@
+package com.habds.lcl.core.data;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test of encoding and decoding of keyset pagination continuation tokens
+ *
+ * @version 1
+ * @since 10/18/26 4:47 PM
+ */
+public class KeysetTest {
+
+    @Test
+    public void testStringsAndNulls() {
+        assertRoundTrip(new Object[]{"plain", "with.separator", "~", "", null, "\u044e\u043d\u0456\u043a\u043e\u0434"},
+            String.class, String.class, String.class, String.class, String.class, String.class);
+        assertRoundTrip(new Object[]{null, null}, Long.class, TimeUnit.class);
+    }
+
+    @Test
+    public void testDates() {
+        Timestamp timestamp = new Timestamp(1_000_000_000_123L);
+        timestamp.setNanos(123_456_789);
+        assertRoundTrip(new Object[]{new Date(1_000_000_000_123L), timestamp,
+                new java.sql.Date(1_000_000_000_000L), new Date(-1L)},
+            Date.class, Timestamp.class, java.sql.Date.class, Date.class);
+        Object[] values = Keyset.decode(Keyset.encode(timestamp), Timestamp.class);
+        assertEquals(123_456_789, ((Timestamp) values[0]).getNanos());
+    }
+
+    @Test
+    public void testEnumsAndNumbers() {
+        assertRoundTrip(new Object[]{TimeUnit.DAYS, 42, -7L, new BigDecimal("1000.50"), true, 'x',
+                LocalDate.of(2026, 10, 19)},
+            TimeUnit.class, Integer.class, Long.class, BigDecimal.class, Boolean.class, Character.class,
+            LocalDate.class);
+        assertArrayEquals(new Object[]{42, 7L, false},
+            Keyset.decode(Keyset.encode(42, 7L, false), int.class, long.class, boolean.class));
+    }
+
+    @Test
+    public void testLastRowOfDescendingPage() {
+        // Token holds values only, direction of the sort keys doesn't change it
+        Object[] lastRow = {null, TimeUnit.SECONDS, new Date(0), "id-1"};
+        String token = Keyset.encode(lastRow);
+        assertEquals(4, token.split("\\.", -1).length);
+        assertRoundTrip(lastRow, String.class, TimeUnit.class, Date.class, String.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongNumberOfKeys() {
+        Keyset.decode(Keyset.encode(1, 2), Integer.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongType() {
+        Keyset.decode(Keyset.encode("abc"), Integer.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownEnumConstant() {
+        Keyset.decode(Keyset.encode("WEEKS"), TimeUnit.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedToken() {
+        Keyset.decode("not base64!", String.class);
+    }
+
+    private static void assertRoundTrip(Object[] values, Class<?>... types) {
+        Object[] decoded = Keyset.decode(Keyset.encode(values), types);
+        assertArrayEquals(values, decoded);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                assertEquals(values[i].getClass(), decoded[i].getClass());
+            }
+        }
+    }
+}
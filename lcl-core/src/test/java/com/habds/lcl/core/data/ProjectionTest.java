@@ -0,0 +1,125 @@
+package com.habds.lcl.core.data;
+
+import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.annotation.Contains;
+import com.habds.lcl.core.annotation.Link;
+import com.habds.lcl.core.processor.impl.SimpleProcessor;
+import org.junit.Test;
+
+import javax.persistence.ElementCollection;
+import javax.persistence.Embedded;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test of DTOs which can be projected, see {@link Projection#of(com.habds.lcl.core.processor.impl.MappingMetadata)}
+ *
+ * @version 1
+ * @since 10/18/26 4:33 PM
+ */
+public class ProjectionTest {
+
+    private final SimpleProcessor processor = new SimpleProcessor()
+        .add(Arrays.asList(OrderDto.class, CustomerDto.class, OrderWithCustomerDto.class, OrderWithLinesDto.class,
+            LineDto.class, ShipmentDto.class)).configure();
+
+    @Test
+    public void testValuesThroughRelationsAndEmbeddables() {
+        Projection<Order, OrderDto> projection = processor.getProjection(OrderDto.class);
+        assertNotNull(projection);
+        assertEquals(Order.class, projection.getEntityClass());
+        assertNotNull(processor.getProjection(CustomerDto.class));
+    }
+
+    @Test
+    public void testRelationsAreNotProjected() {
+        // Nested DTOs and collections of related Entities would load the Entities anyway
+        assertNull(processor.getProjection(OrderWithCustomerDto.class));
+        assertNull(processor.getProjection(OrderWithLinesDto.class));
+    }
+
+    @Test
+    public void testRelationsInsideEmbeddablesAreNotProjected() {
+        assertNull(processor.getProjection(ShipmentDto.class));
+    }
+
+    public static class Order {
+        private String number;
+        @ManyToOne
+        private Customer customer;
+        @OneToMany
+        private List<Line> lines;
+        @ElementCollection
+        private Set<String> labels;
+        @Embedded
+        private Address address;
+    }
+
+    public static class Customer {
+        private String name;
+        @Embedded
+        private Address address;
+    }
+
+    public static class Address {
+        private String city;
+        @ManyToOne
+        private Region region;
+    }
+
+    public static class Region {
+        private String name;
+    }
+
+    public static class Line {
+        private int quantity;
+    }
+
+    @ClassLink(Order.class)
+    public static class OrderDto {
+        private String number;
+        @Link("customer.name")
+        private String customerName;
+        @Link("customer.address.city")
+        private String customerCity;
+        @Link("address.city")
+        private String city;
+        private Set<String> labels;
+    }
+
+    @ClassLink(Customer.class)
+    public static class CustomerDto {
+        private String name;
+        @Link("address.city")
+        private String city;
+    }
+
+    @ClassLink(Order.class)
+    public static class OrderWithCustomerDto {
+        private String number;
+        private CustomerDto customer;
+    }
+
+    @ClassLink(Line.class)
+    public static class LineDto {
+        private int quantity;
+    }
+
+    @ClassLink(Order.class)
+    public static class OrderWithLinesDto {
+        private String number;
+        @Contains(LineDto.class)
+        private List<LineDto> lines;
+    }
+
+    @ClassLink(Order.class)
+    public static class ShipmentDto {
+        @Link("address.region.name")
+        private String region;
+    }
+}
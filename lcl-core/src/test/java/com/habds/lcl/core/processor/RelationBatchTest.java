@@ -0,0 +1,91 @@
+package com.habds.lcl.core.processor;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test of batched relation lookups: one lookup per Entity type, missing keys are remembered
+ *
+ * @version 1
+ * @since 10/18/26 4:36 PM
+ */
+public class RelationBatchTest {
+
+    private final List<Collection<Object>> lookups = new ArrayList<>();
+    private final RelationBatch.Resolver resolver = (type, keys) -> {
+        lookups.add(new ArrayList<>(keys));
+        Map<Object, Object> found = new HashMap<>();
+        keys.stream().filter(key -> (Integer) key % 2 == 1).forEach(key -> found.put(key, type.getSimpleName() + key));
+        return found;
+    };
+
+    @Test
+    public void testSingleLookupPerType() {
+        RelationBatch batch = new RelationBatch();
+        List<Object> strings = new ArrayList<>();
+        List<Object> integers = new ArrayList<>();
+        batch.assign(String.class, 1, resolver, strings::add);
+        batch.assign(String.class, 3, resolver, strings::add);
+        batch.assign(String.class, 1, resolver, strings::add);
+        batch.assign(Integer.class, 5, resolver, integers::add);
+        assertTrue(lookups.isEmpty());
+        assertTrue(strings.isEmpty());
+
+        batch.resolve();
+        assertEquals(Arrays.asList(Arrays.asList(1, 3), Collections.singletonList(5)), lookups);
+        assertEquals(Arrays.asList("String1", "String3", "String1"), strings);
+        assertEquals(Collections.singletonList("Integer5"), integers);
+    }
+
+    @Test
+    public void testMissingKeysAreCached() {
+        RelationBatch batch = new RelationBatch();
+        List<Object> assigned = new ArrayList<>();
+        batch.assign(String.class, 1, resolver, assigned::add);
+        batch.assign(String.class, 2, resolver, assigned::add);
+        batch.resolve();
+        assertEquals(1, lookups.size());
+        assertEquals(Arrays.asList("String1", null), assigned);
+        assertTrue(batch.isResolved(String.class, 1));
+        assertTrue(batch.isResolved(String.class, 2));
+        assertFalse(batch.isResolved(String.class, 3));
+        assertFalse(batch.isResolved(Integer.class, 1));
+
+        // Resolved keys, found or missing, are assigned at once without lookup
+        assigned.clear();
+        batch.assign(String.class, 2, resolver, assigned::add);
+        batch.assign(String.class, 1, resolver, assigned::add);
+        assertEquals(Arrays.asList(null, "String1"), assigned);
+        batch.resolve();
+        assertEquals(1, lookups.size());
+
+        // Only unknown keys are looked up
+        batch.assign(String.class, 2, resolver, assigned::add);
+        batch.assign(String.class, 4, resolver, assigned::add);
+        batch.resolve();
+        assertEquals(Collections.singletonList(4), lookups.get(1));
+    }
+
+    @Test
+    public void testClear() {
+        RelationBatch batch = new RelationBatch();
+        List<Object> assigned = new ArrayList<>();
+        batch.assign(String.class, 2, resolver, assigned::add);
+        batch.resolve();
+        batch.assign(String.class, 3, resolver, assigned::add);
+        batch.clear();
+        assertFalse(batch.isResolved(String.class, 2));
+
+        // Pending assignment is discarded
+        batch.resolve();
+        assertEquals(1, lookups.size());
+        assertEquals(Collections.singletonList(null), assigned);
+
+        batch.assign(String.class, 2, resolver, assigned::add);
+        batch.resolve();
+        assertEquals(2, lookups.size());
+    }
+}
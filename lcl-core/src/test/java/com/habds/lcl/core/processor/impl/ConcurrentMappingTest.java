@@ -0,0 +1,105 @@
+package com.habds.lcl.core.processor.impl;
+
+import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.annotation.Link;
+import com.habds.lcl.core.processor.impl.util.ClassCache;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Stress test of mapping from many threads while {@link ClassCache} is being lazily populated
+ *
+ * @version 1
+ * @since 10/18/26 4:13 PM
+ */
+public class ConcurrentMappingTest {
+
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 2000;
+
+    @Test(timeout = 60000)
+    public void testConcurrentLazyPopulation() throws Exception {
+        SimpleProcessor processor = new SimpleProcessor().add(PersonDto.class).configure();
+        List<Class<?>> classes = Arrays.asList(C0.class, C1.class, C2.class, C3.class,
+            C4.class, C5.class, C6.class, C7.class);
+
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                // Start all threads at once, so they race for populating the same classes
+                barrier.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    Class<?> clazz = classes.get(random.nextInt(classes.size()));
+                    assertTrue(ClassCache.getInstance().hasProperty(clazz, "value"));
+                    assertFalse(ClassCache.getInstance().hasProperty(clazz, "missing"));
+                    assertEquals("value", ClassCache.getInstance().getProperty(clazz, "value").getName());
+
+                    Person person = processor.merge(new Person(), Collections.singletonMap("address.city", "C" + i));
+                    PersonDto dto = processor.process(person, PersonDto.class);
+                    assertEquals("C" + i, dto.city);
+                }
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public static class Person {
+        private String name;
+        private Address address;
+    }
+
+    public static class Address {
+        private String city;
+    }
+
+    @ClassLink(Person.class)
+    public static class PersonDto {
+        private String name;
+        @Link("address.city")
+        private String city;
+    }
+
+    public static class C0 {
+        private String value;
+    }
+
+    public static class C1 extends C0 {
+    }
+
+    public static class C2 {
+        private int value;
+    }
+
+    public static class C3 extends C2 {
+        private long other;
+    }
+
+    public static class C4 {
+        private Object value;
+    }
+
+    public static class C5 extends C4 {
+    }
+
+    public static class C6 {
+        private Date value;
+    }
+
+    public static class C7 extends C6 {
+        private Date other;
+    }
+}
@@ -0,0 +1,140 @@
+package com.habds.lcl.core.processor.impl;
+
+import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.annotation.Link;
+import com.habds.lcl.core.processor.FieldSelection;
+import com.habds.lcl.core.processor.LinkProcessingException;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test of partial mapping of selected DTO's properties
+ *
+ * @version 1
+ * @since 10/18/26 4:24 PM
+ */
+public class FieldSelectionTest {
+
+    private final SimpleProcessor processor = new SimpleProcessor()
+        .add(Arrays.asList(PersonDto.class, AddressDto.class)).configure();
+
+    @Test
+    public void testSelectionTree() {
+        FieldSelection selection = FieldSelection.of("name", "address.city", "address.street", "friend.name",
+            "friend");
+        assertEquals(new LinkedHashSet<>(Arrays.asList("name", "address", "friend")), selection.getNames());
+        assertNull(selection.getNested("name"));
+        assertEquals(FieldSelection.of("city", "street"), selection.getNested("address"));
+        // Property selected as a whole wins over its nested selection
+        assertNull(selection.getNested("friend"));
+        assertTrue(selection.contains("friend"));
+        assertFalse(selection.contains("age"));
+
+        assertEquals(FieldSelection.of("address.city", "name"), FieldSelection.of("name", "address.city"));
+        assertEquals(FieldSelection.of("address.city", "name").hashCode(),
+            FieldSelection.of("name", "address.city").hashCode());
+        assertNotEquals(FieldSelection.of("address"), FieldSelection.of("address.city"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPath() {
+        FieldSelection.of("address..city");
+    }
+
+    @Test
+    public void testOnlySelectedPropertiesAreFilled() {
+        PersonDto dto = processor.process(person(), PersonDto.class, FieldSelection.of("name", "address.city"));
+        assertEquals("Bob", dto.name);
+        assertEquals(0, dto.age);
+        assertNull(dto.city);
+        assertNull(dto.friend);
+        assertEquals("Kyiv", dto.address.city);
+        assertNull(dto.address.street);
+    }
+
+    @Test
+    public void testNestedSelections() {
+        PersonDto dto = processor.process(person(), PersonDto.class,
+            FieldSelection.of("friend.age", "friend.address.street", "city"));
+        assertEquals("Kyiv", dto.city);
+        assertNull(dto.name);
+        assertEquals(30, dto.friend.age);
+        assertNull(dto.friend.name);
+        assertNull(dto.friend.address.city);
+        assertEquals("Main", dto.friend.address.street);
+
+        // Whole nested property is filled completely
+        dto = processor.process(person(), PersonDto.class, FieldSelection.of("friend"));
+        assertEquals("Alice", dto.friend.name);
+        assertEquals("Lviv", dto.friend.address.city);
+        assertNull(dto.address);
+
+        // Selection doesn't leak into the calls without it
+        dto = processor.process(person(), PersonDto.class);
+        assertEquals("Bob", dto.name);
+        assertEquals("Central", dto.address.street);
+    }
+
+    @Test
+    public void testPlansAreCachedPerSelection() {
+        MappingMetadata metadata = processor.mappingMetadata.get(PersonDto.class);
+        MappingMetadata.SelectionPlan plan = metadata.getSelectionPlan(FieldSelection.of("name", "age"));
+        assertSame(plan, metadata.getSelectionPlan(FieldSelection.of("age", "name")));
+        assertNotSame(plan, metadata.getSelectionPlan(FieldSelection.of("name")));
+        assertEquals(2, plan.size());
+    }
+
+    @Test(expected = LinkProcessingException.class)
+    public void testUnknownProperty() {
+        processor.process(person(), PersonDto.class, FieldSelection.of("missing"));
+    }
+
+    private static Person person() {
+        Person friend = new Person();
+        friend.name = "Alice";
+        friend.age = 30;
+        friend.address = new Address();
+        friend.address.city = "Lviv";
+        friend.address.street = "Main";
+
+        Person person = new Person();
+        person.name = "Bob";
+        person.age = 42;
+        person.address = new Address();
+        person.address.city = "Kyiv";
+        person.address.street = "Central";
+        person.friend = friend;
+        return person;
+    }
+
+    public static class Person {
+        private String name;
+        private int age;
+        private Address address;
+        private Person friend;
+    }
+
+    public static class Address {
+        private String city;
+        private String street;
+    }
+
+    @ClassLink(Person.class)
+    public static class PersonDto {
+        private String name;
+        private int age;
+        @Link("address.city")
+        private String city;
+        private AddressDto address;
+        private PersonDto friend;
+    }
+
+    @ClassLink(Address.class)
+    public static class AddressDto {
+        private String city;
+        private String street;
+    }
+}
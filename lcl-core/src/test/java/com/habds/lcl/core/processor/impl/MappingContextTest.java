@@ -0,0 +1,113 @@
+package com.habds.lcl.core.processor.impl;
+
+import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.annotation.Contains;
+import com.habds.lcl.core.processor.MappingContext;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test of mapping within {@link MappingContext}: shared and cyclic references
+ *
+ * @version 1
+ * @since 10/18/26 4:23 PM
+ */
+public class MappingContextTest {
+
+    private final SimpleProcessor processor = new SimpleProcessor()
+        .add(Arrays.asList(PersonDto.class, PersonNameDto.class)).configure();
+
+    @Test
+    public void testSharedEntityIsMappedOnce() {
+        Person shared = person("Shared");
+        Person first = person("First");
+        Person second = person("Second");
+        first.friend = shared;
+        second.friend = shared;
+        first.children = Arrays.asList(shared, shared);
+
+        MappingContext context = new MappingContext();
+        PersonDto firstDto = processor.process(first, PersonDto.class, context);
+        PersonDto secondDto = processor.process(second, PersonDto.class, context);
+        assertEquals("Shared", firstDto.friend.name);
+        assertSame(firstDto.friend, secondDto.friend);
+        assertSame(firstDto.friend, firstDto.children.get(0));
+        assertSame(firstDto.friend, firstDto.children.get(1));
+        assertSame(firstDto, processor.process(first, PersonDto.class, context));
+        assertSame(firstDto, context.get(first, PersonDto.class));
+
+        // Without context each reference gets its own DTO
+        PersonDto dto = processor.process(first, PersonDto.class);
+        assertNotSame(dto.friend, dto.children.get(0));
+        assertNotSame(dto.children.get(0), dto.children.get(1));
+        assertEquals("Shared", dto.children.get(1).name);
+    }
+
+    @Test
+    public void testCyclicReferences() {
+        Person first = person("First");
+        Person second = person("Second");
+        first.friend = second;
+        second.friend = first;
+        first.children = Collections.singletonList(first);
+
+        PersonDto dto = processor.process(first, PersonDto.class, new MappingContext());
+        assertEquals("Second", dto.friend.name);
+        assertSame(dto, dto.friend.friend);
+        assertSame(dto, dto.children.get(0));
+        assertTrue(dto.friend.children.isEmpty());
+    }
+
+    @Test
+    public void testEntitiesAreComparedByIdentity() {
+        Person first = person("Same");
+        Person second = person("Same");
+        MappingContext context = new MappingContext();
+        assertNotSame(processor.process(first, PersonDto.class, context),
+            processor.process(second, PersonDto.class, context));
+    }
+
+    @Test
+    public void testDtoPerClass() {
+        Person person = person("Person");
+        MappingContext context = new MappingContext();
+        PersonDto dto = processor.process(person, PersonDto.class, context);
+        assertNull(context.get(person, PersonNameDto.class));
+        PersonNameDto nameDto = processor.process(person, PersonNameDto.class, context);
+        assertEquals("Person", nameDto.name);
+        assertSame(dto, context.get(person, PersonDto.class));
+        assertSame(nameDto, context.get(person, PersonNameDto.class));
+
+        context.clear();
+        assertNull(context.get(person, PersonDto.class));
+        assertNotSame(dto, processor.process(person, PersonDto.class, context));
+    }
+
+    private static Person person(String name) {
+        Person person = new Person();
+        person.name = name;
+        return person;
+    }
+
+    public static class Person {
+        private String name;
+        private Person friend;
+        private List<Person> children;
+    }
+
+    @ClassLink(Person.class)
+    public static class PersonDto {
+        private String name;
+        private PersonDto friend;
+        @Contains(PersonDto.class)
+        private List<PersonDto> children;
+    }
+
+    @ClassLink(Person.class)
+    public static class PersonNameDto {
+        private String name;
+    }
+}
@@ -0,0 +1,98 @@
+package com.habds.lcl.core.processor.impl;
+
+import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.processor.GetterMapping;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test of {@link MappingMetadata} reconfiguration while DTOs are being set up from other threads
+ *
+ * @version 1
+ * @since 10/18/26 4:10 PM
+ */
+public class MappingMetadataTest {
+
+    private static final int READERS = 8;
+    private static final int CONFIGURATIONS = 2000;
+
+    @Test(timeout = 60000)
+    public void testConfigureReplacesMappingsAsWhole() throws Exception {
+        GenerationLinkProcessor linkProcessor = new GenerationLinkProcessor();
+        MappingMetadata<Entity, Dto> metadata = new MappingMetadata<>(linkProcessor, Dto.class);
+        metadata.configure();
+
+        AtomicBoolean done = new AtomicBoolean();
+        CyclicBarrier barrier = new CyclicBarrier(READERS + 1);
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < READERS; t++) {
+            futures.add(executor.submit(() -> {
+                barrier.await();
+                int checked = 0;
+                while (!done.get()) {
+                    Dto dto = metadata.setUpDTO(new Entity());
+                    // All properties of a DTO must come from the mappings of the same configure() call
+                    assertNotNull(dto.a);
+                    assertEquals(dto.a, dto.b);
+                    assertEquals(dto.a, dto.c);
+                    assertEquals(dto.a, dto.d);
+                    checked++;
+                }
+                return checked;
+            }));
+        }
+        try {
+            barrier.await();
+            for (int i = 0; i < CONFIGURATIONS; i++) {
+                linkProcessor.generation++;
+                metadata.configure();
+            }
+            done.set(true);
+            for (Future<Integer> future : futures) {
+                assertTrue(future.get() > 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Dto dto = metadata.setUpDTO(new Entity());
+        assertEquals(Integer.valueOf(CONFIGURATIONS), dto.a);
+    }
+
+    /**
+     * Maps every property to the number of {@link MappingMetadata#configure()} calls made so far
+     */
+    private static class GenerationLinkProcessor extends SimpleLinkProcessor {
+
+        private volatile int generation;
+
+        @Override
+        public GetterMapping getterMapping(String path, Class entityClass, Field dtoField) {
+            Integer value = generation;
+            return (entity, dto) -> value;
+        }
+    }
+
+    public static class Entity {
+        private Integer a;
+        private Integer b;
+        private Integer c;
+        private Integer d;
+    }
+
+    @ClassLink(Entity.class)
+    public static class Dto {
+        private Integer a;
+        private Integer b;
+        private Integer c;
+        private Integer d;
+    }
+}
@@ -0,0 +1,104 @@
+package com.habds.lcl.core.processor.impl;
+
+import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.processor.LinkProcessingException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test of lists mapped in parallel chunks, see {@link SimpleProcessor#parallelBatches}
+ *
+ * @version 1
+ * @since 10/18/26 4:20 PM
+ */
+public class ParallelBatchesTest {
+
+    private static final int SIZE = 100;
+
+    @Test
+    public void testOrderPreserved() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SimpleProcessor processor = new SimpleProcessor().add(ItemDto.class).parallelBatches(pool, 2).configure();
+            List<ItemDto> dtos = processor.process(items(-1, null), ItemDto.class);
+            for (int i = 0; i < SIZE; i++) {
+                assertEquals(i, dtos.get(i).value);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailuresSameAsSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SimpleProcessor sequential = new SimpleProcessor().add(ItemDto.class).configure();
+            SimpleProcessor parallel = new SimpleProcessor().add(ItemDto.class).parallelBatches(pool, 2).configure();
+
+            MappingError error = new MappingError();
+            assertSame(error, failure(sequential, items(SIZE - 1, error)));
+            assertSame(error, failure(parallel, items(SIZE - 1, error)));
+
+            IllegalStateException exception = new IllegalStateException();
+            Throwable sequentialFailure = failure(sequential, items(SIZE - 1, exception));
+            Throwable parallelFailure = failure(parallel, items(SIZE - 1, exception));
+            assertTrue(sequentialFailure instanceof LinkProcessingException);
+            assertTrue(parallelFailure instanceof LinkProcessingException);
+            assertSame(exception, sequentialFailure.getCause());
+            assertSame(exception, parallelFailure.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Throwable failure(SimpleProcessor processor, List<Item> items) {
+        try {
+            processor.process(items, ItemDto.class);
+        } catch (Throwable e) {
+            return e;
+        }
+        throw new AssertionError("Mapping must fail");
+    }
+
+    private static List<Item> items(int failing, Throwable failure) {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            items.add(new Item(i, i == failing ? failure : null));
+        }
+        return items;
+    }
+
+    public static class Item {
+        private final int number;
+        private final Throwable failure;
+
+        public Item(int number, Throwable failure) {
+            this.number = number;
+            this.failure = failure;
+        }
+
+        public int getValue() {
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            return number;
+        }
+    }
+
+    @ClassLink(Item.class)
+    public static class ItemDto {
+        private int value;
+    }
+
+    private static class MappingError extends Error {
+    }
+}
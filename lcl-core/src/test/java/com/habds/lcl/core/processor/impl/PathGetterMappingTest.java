@@ -0,0 +1,89 @@
+package com.habds.lcl.core.processor.impl;
+
+import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.annotation.Link;
+import com.habds.lcl.core.processor.GetterMapping;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Behaviour of {@link PathGetterMapping}: path walking, {@code null} intermediates and post mappings.
+ * The JMH benchmark comparing it with the chained per-segment mappings is omitted, as the build has no JMH harness.
+ *
+ * @version 1
+ * @since 10/18/26 4:08 PM
+ */
+public class PathGetterMappingTest {
+
+    @Test
+    public void testWalksPath() {
+        Person person = person("Kyiv");
+        assertEquals("Kyiv", cityMapping(null).map(person, null));
+    }
+
+    @Test
+    public void testNullIntermediateStopsWalking() {
+        Person person = new Person();
+        // Getter of the city must not be called on the null address
+        assertNull(cityMapping(null).map(person, null));
+        assertNull(cityMapping(null).map(null, null));
+    }
+
+    @Test
+    public void testPostMappingAppliedToNull() {
+        GetterMapping postMapping = (value, dto) -> value == null ? "none" : "city " + value;
+        assertEquals("city Kyiv", cityMapping(postMapping).map(person("Kyiv"), null));
+        assertEquals("none", cityMapping(postMapping).map(new Person(), null));
+        assertEquals("none", cityMapping(postMapping).map(person(null), null));
+    }
+
+    @Test
+    public void testPostMappingReceivesDto() {
+        Object dto = new Object();
+        GetterMapping postMapping = (value, target) -> target;
+        assertSame(dto, cityMapping(postMapping).map(new Person(), dto));
+    }
+
+    @Test
+    public void testProcessorMapsNullIntermediates() {
+        SimpleProcessor processor = new SimpleProcessor().add(PersonDto.class).configure();
+
+        PersonDto dto = processor.process(person("Kyiv"), PersonDto.class);
+        assertEquals("Kyiv", dto.city);
+
+        dto = processor.process(new Person(), PersonDto.class);
+        assertNull(dto.city);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PathGetterMapping cityMapping(GetterMapping postMapping) {
+        Function<Person, Address> address = p -> p.address;
+        Function<Address, String> city = a -> a.city;
+        return new PathGetterMapping(Arrays.asList("address", "city"), Arrays.asList(address, city), postMapping);
+    }
+
+    private static Person person(String city) {
+        Person person = new Person();
+        person.address = new Address();
+        person.address.city = city;
+        return person;
+    }
+
+    public static class Person {
+        private Address address;
+    }
+
+    public static class Address {
+        private String city;
+    }
+
+    @ClassLink(Person.class)
+    public static class PersonDto {
+        @Link("address.city")
+        private String city;
+    }
+}
@@ -0,0 +1,188 @@
+package com.habds.lcl.core.processor.impl;
+
+import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.annotation.Link;
+import com.habds.lcl.core.processor.LinkProcessingException;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Field;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Test of primitive properties transferred between Entity and DTO without boxing, in both directions
+ *
+ * @version 1
+ * @since 10/18/26 4:20 PM
+ */
+public class PrimitiveTransferTest {
+
+    private static final int WARM_UP = 20000;
+    private static final int ITERATIONS = 10000;
+
+    @Test
+    public void testMappings() {
+        SimpleLinkProcessor linkProcessor = new SimpleLinkProcessor();
+        new SimpleProcessor(linkProcessor).configure();
+        MappingMetadata<Numbers, NumbersDto> metadata = new MappingMetadata<>(linkProcessor, NumbersDto.class);
+        metadata.configure();
+        for (int i = 0; i < metadata.getPropertyNames().size(); i++) {
+            String name = metadata.getPropertyNames().get(i);
+            boolean primitive = metadata.getGetterMapping(i) instanceof PrimitivePathGetterMapping;
+            assertEquals(name, !name.equals("name"), primitive);
+        }
+        assertTrue(linkProcessor.setterMapping("count", Numbers.class, field(NumbersDto.class, "count"))
+            instanceof PrimitiveSetterMapping);
+        assertTrue(linkProcessor.setterMapping("total", Numbers.class, field(NumbersDto.class, "total"))
+            instanceof PrimitiveSetterMapping);
+        assertTrue(linkProcessor.setterMapping("boxedCount", Numbers.class, field(NumbersDto.class, "boxedCount"))
+            instanceof PrimitiveSetterMapping);
+        assertFalse(linkProcessor.setterMapping("name", Numbers.class, field(NumbersDto.class, "name"))
+            instanceof PrimitiveSetterMapping);
+    }
+
+    @Test
+    public void testEntityToDto() {
+        SimpleProcessor processor = new SimpleProcessor().add(NumbersDto.class).configure();
+        NumbersDto dto = processor.process(numbers(), NumbersDto.class);
+        assertEquals(1000, dto.count);
+        assertEquals(Long.valueOf(2000L), dto.total);
+        assertEquals(3000, dto.boxedCount);
+        assertTrue(dto.active);
+        assertEquals(4.5, dto.ratio, 0);
+        assertEquals(5000L, dto.nestedTotal);
+        assertEquals("numbers", dto.name);
+    }
+
+    @Test
+    public void testDtoToEntity() {
+        SimpleProcessor processor = new SimpleProcessor().add(NumbersDto.class).configure();
+        NumbersDto dto = processor.process(numbers(), NumbersDto.class);
+        Numbers entity = processor.merge(new Numbers(), dto);
+        assertEquals(1000, entity.count);
+        assertEquals(2000L, entity.total);
+        assertEquals(Integer.valueOf(3000), entity.boxedCount);
+        assertTrue(entity.active);
+        assertEquals(4.5, entity.ratio, 0);
+        assertEquals(5000L, entity.nested.total);
+        assertEquals("numbers", entity.name);
+    }
+
+    @Test
+    public void testNullWrapperIntoPrimitive() {
+        SimpleProcessor processor = new SimpleProcessor().add(NumbersDto.class).configure();
+        Numbers entity = numbers();
+        entity.boxedCount = null;
+        try {
+            processor.process(entity, NumbersDto.class);
+            fail("Null cannot be set into primitive");
+        } catch (LinkProcessingException e) {
+            assertTrue(e.getCause() instanceof NullPointerException);
+        }
+    }
+
+    @Test
+    public void testNoBoxingAllocations() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported());
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) bean;
+
+        SimpleLinkProcessor linkProcessor = new SimpleLinkProcessor();
+        new SimpleProcessor(linkProcessor).configure();
+        MappingMetadata<Longs, LongsDto> metadata = new MappingMetadata<>(linkProcessor, LongsDto.class);
+        metadata.configure();
+        Longs entity = new Longs();
+        LongsDto dto = metadata.setUpDTO(entity);
+        for (int i = 0; i < WARM_UP; i++) {
+            metadata.setUpDTO(entity);
+            metadata.setUpEntity(entity, dto);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long start = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            metadata.setUpEntity(entity, dto);
+        }
+        long perEntity = (allocations.getThreadAllocatedBytes(threadId) - start) / ITERATIONS;
+
+        start = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            metadata.setUpDTO(entity);
+        }
+        long perDto = (allocations.getThreadAllocatedBytes(threadId) - start) / ITERATIONS;
+
+        // Six boxed longs outside of Long cache would take at least 96 bytes, DTO itself takes about 64 bytes
+        assertTrue("Allocated " + perEntity + " bytes per Entity", perEntity < 16);
+        assertTrue("Allocated " + perDto + " bytes per DTO", perDto < 96);
+    }
+
+    private static Numbers numbers() {
+        Numbers numbers = new Numbers();
+        numbers.count = 1000;
+        numbers.total = 2000L;
+        numbers.boxedCount = 3000;
+        numbers.active = true;
+        numbers.ratio = 4.5;
+        numbers.nested = new Nested();
+        numbers.nested.total = 5000L;
+        numbers.name = "numbers";
+        return numbers;
+    }
+
+    private static Field field(Class<?> clazz, String name) {
+        try {
+            return clazz.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Numbers {
+        private int count;
+        private long total;
+        private Integer boxedCount;
+        private boolean active;
+        private double ratio;
+        private Nested nested;
+        private String name;
+    }
+
+    public static class Nested {
+        private long total;
+    }
+
+    @ClassLink(Numbers.class)
+    public static class NumbersDto {
+        private int count;
+        private Long total;
+        private int boxedCount;
+        private boolean active;
+        private double ratio;
+        @Link("nested.total")
+        private long nestedTotal;
+        private String name;
+    }
+
+    public static class Longs {
+        private long a = 1001;
+        private long b = 1002;
+        private long c = 1003;
+        private long d = 1004;
+        private long e = 1005;
+        private long f = 1006;
+    }
+
+    @ClassLink(Longs.class)
+    public static class LongsDto {
+        private long a;
+        private long b;
+        private long c;
+        private long d;
+        private long e;
+        private long f;
+    }
+}
@@ -38,6 +38,9 @@ public class AppConfig {
     @SuppressWarnings("SpringJavaAutowiringInspection")
     @Bean
     public EntityManagerRepository emRepository(SimpleProcessor processor, EntityManager em) {
-        return new EntityManagerRepository(processor, em);
+        EntityManagerRepository repository = new EntityManagerRepository(processor, em);
+        // H2 orders nulls before other values
+        repository.setNullsFirst(true);
+        return repository;
     }
 }
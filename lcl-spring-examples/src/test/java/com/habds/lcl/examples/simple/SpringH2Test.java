@@ -26,6 +26,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.util.*;
 
@@ -491,6 +492,216 @@ public class SpringH2Test {
         System.out.println("Filtering and sorting via JPA EntityManager OK");
     }
 
+    @Test
+    public void testKeysetPaginationForEMRepo() {
+        System.out.println("Testing keyset pagination via JPA EntityManager");
+
+        Map<String, Filter> filters = new HashMap<>();
+        filters.put("name", new Like("Yurii").negate());
+        List<String> expected = new ArrayList<>();
+        repo.getAll(filters, new PagingAndSorting().orderBy("name", false).orderBy("login"), ClientDto.class)
+            .stream().forEach(c -> expected.add(c.getLogin()));
+
+        List<String> logins = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            Sheet<ClientDto> clients = repo.getAll(filters,
+                new PagingAndSorting().withKeyset(after, 4).withoutCount().orderBy("name", false).orderBy("login"),
+                ClientDto.class);
+            assertFalse(clients.isCounted());
+            clients.stream().forEach(c -> logins.add(c.getLogin()));
+            after = clients.getNext();
+            pages++;
+        } while (after != null);
+        assertEquals(2, pages);
+        assertEquals(6, logins.size());
+        assertEquals(expected, logins);
+
+        System.out.println("Keyset pagination via JPA EntityManager OK");
+    }
+
+    @Test
+    public void testKeysetPaginationByDescendingKeysForEMRepo() {
+        System.out.println("Testing keyset pagination by descending and nullable keys via JPA EntityManager");
+
+        // Continuation tokens hold enums, dates and nulls (clients without login)
+        List<Long> expected = new ArrayList<>();
+        repo.getAll(new HashMap<>(), new PagingAndSorting().orderBy("gender", false).orderBy("birthday", false)
+            .orderBy("login").orderBy("uid"), ClientDto.class).stream().forEach(c -> expected.add(c.getUid()));
+
+        List<Long> uids = new ArrayList<>();
+        String after = null;
+        do {
+            Sheet<ClientDto> clients = repo.getAll(new HashMap<>(), new PagingAndSorting().withKeyset(after, 3)
+                    .withoutCount().orderBy("gender", false).orderBy("birthday", false).orderBy("login"),
+                ClientDto.class);
+            clients.stream().forEach(c -> uids.add(c.getUid()));
+            after = clients.getNext();
+        } while (after != null);
+        assertEquals(8, uids.size());
+        assertEquals(expected, uids);
+
+        System.out.println("Keyset pagination by descending and nullable keys via JPA EntityManager OK");
+    }
+
+    @Test
+    public void testStreamDetachesRelationsForEMRepo() {
+        System.out.println("Testing streaming via JPA EntityManager");
+
+        EntityManager em = repo.getEm();
+        em.flush();
+        em.clear();
+        Client client = em.createQuery("select c from Client c where c.loginData.email = :email", Client.class)
+            .setParameter("email", CLIENT_EMAIL)
+            .getSingleResult();
+
+        Map<String, Filter> filters = new HashMap<>();
+        filters.put("login", new Equals(CLIENT_EMAIL));
+        List<ClientDto> clients = new ArrayList<>();
+        repo.forEach(filters, new PagingAndSorting(), ClientDto.class, clients::add);
+        assertEquals(1, clients.size());
+        assertEquals(2, clients.get(0).getAccounts().size());
+
+        // Streamed Entity and the relations read by DTO's links are not kept by the persistence context
+        assertFalse(em.contains(client));
+        assertFalse(em.contains(client.getSelectedAccount()));
+        assertFalse(em.contains(client.getLead()));
+        assertEquals(2, client.getAccounts().size());
+        for (Account account : client.getAccounts()) {
+            assertFalse(em.contains(account));
+            assertFalse(em.contains(account.getState()));
+        }
+
+        System.out.println("Streaming via JPA EntityManager OK");
+    }
+
+    @Test
+    public void testSliceForEMRepo() {
+        System.out.println("Testing slices via JPA EntityManager");
+
+        Sheet<ClientDto> slice = repo.getSlice(new HashMap<>(), new PagingAndSorting(0, 5).orderBy("uid"),
+            ClientDto.class);
+        assertEquals(5, slice.size());
+        assertTrue(slice.hasNext());
+        assertFalse(slice.isCounted());
+
+        slice = repo.getSlice(new HashMap<>(), new PagingAndSorting(1, 5).orderBy("uid"), ClientDto.class);
+        assertEquals(3, slice.size());
+        assertFalse(slice.hasNext());
+
+        // Extra row isn't a part of the slice
+        slice = repo.getSlice(new HashMap<>(), new PagingAndSorting(1, 4).orderBy("uid"), ClientDto.class);
+        assertEquals(4, slice.size());
+        assertFalse(slice.hasNext());
+
+        // Short page proves the total, full page is counted
+        assertEquals(8, repo.getAll(new HashMap<>(), new PagingAndSorting(1, 5).orderBy("uid"), ClientDto.class)
+            .getTotalElements());
+        assertEquals(8, repo.getAll(new HashMap<>(), new PagingAndSorting(1, 4).orderBy("uid"), ClientDto.class)
+            .getTotalElements());
+        assertEquals(8, repo.getAll(new HashMap<>(), new PagingAndSorting(2, 4).orderBy("uid"), ClientDto.class)
+            .getTotalElements());
+
+        System.out.println("Slices via JPA EntityManager OK");
+    }
+
+    @Test
+    public void testCountUpToForEMRepo() {
+        System.out.println("Testing capped count via JPA EntityManager");
+
+        Map<String, Filter> filters = new HashMap<>();
+        filters.put("name", new Equals("Abc"));
+        assertEquals(2, repo.countUpTo(filters, ClientDto.class, 2));
+        assertEquals(3, repo.countUpTo(filters, ClientDto.class, 10));
+        assertTrue(repo.exists(filters, ClientDto.class));
+
+        // Client with two accounts matches two joined rows, but is counted once
+        filters.clear();
+        filters.put("ownedAccountTypes", new In(AccountType.CHECKING, AccountType.SAVINGS));
+        assertEquals(3, repo.count(filters, ClientDto.class));
+        assertEquals(2, repo.countUpTo(filters, ClientDto.class, 10));
+
+        System.out.println("Capped count via JPA EntityManager OK");
+    }
+
+    @Test
+    public void testProjectionForEMRepo() {
+        System.out.println("Testing projections via JPA EntityManager");
+
+        // Loaded Entities must be read from the database as well as projected values
+        repo.getEm().flush();
+        repo.getEm().clear();
+
+        assertNotNull(emProcessor.getProjection(AccountDto.class));
+        // Selected account is mapped into nested DTO, so the related Entity would be loaded anyway
+        assertNull(emProcessor.getProjection(ClientDto.class));
+
+        EntityManagerRepository projecting = new EntityManagerRepository(emProcessor, repo.getEm());
+        projecting.setUseProjections(true);
+        Map<String, Filter> filters = new HashMap<>();
+        for (int i = 0; i < 2; i++) {
+            PagingAndSorting paging = new PagingAndSorting(0, 10).orderBy("currency").orderBy("number");
+            Sheet<AccountDto> expected = repo.getAll(filters, paging, AccountDto.class);
+            Sheet<AccountDto> actual = projecting.getAll(filters, paging, AccountDto.class);
+            assertEquals(expected.getTotalElements(), actual.getTotalElements());
+            assertEquals(expected.size(), actual.size());
+            for (int j = 0; j < expected.size(); j++) {
+                AccountDto expectedAccount = expected.getContent().get(j);
+                AccountDto actualAccount = actual.getContent().get(j);
+                assertEquals(expectedAccount.getNumber(), actualAccount.getNumber());
+                assertEquals(0, expectedAccount.getAmount().compareTo(actualAccount.getAmount()));
+                assertEquals(expectedAccount.getCurrency(), actualAccount.getCurrency());
+                assertEquals(expectedAccount.getType(), actualAccount.getType());
+            }
+            filters.put("currency", new Equals("UAH"));
+        }
+        assertEquals(2, projecting.getAll(filters, new PagingAndSorting(0, 10), AccountDto.class).size());
+
+        System.out.println("Projections via JPA EntityManager OK");
+    }
+
+    @Test
+    public void testBulkUpdateForEMRepo() {
+        System.out.println("Testing bulk update via JPA EntityManager");
+
+        Map<String, Filter> abc = new HashMap<>();
+        abc.put("name", new Equals("Abc"));
+        assertEquals(3, repo.updateAll(abc, ClientDto.class, Collections.singletonMap("gender", M)));
+
+        // Filter by lead joins the root, so clients are matched by primary keys selected with subquery
+        Map<String, Filter> referrals = new HashMap<>();
+        referrals.put("leadName", new Equals("John"));
+        assertEquals(1, repo.updateAll(referrals, ClientDto.class, Collections.singletonMap("name", "Referral")));
+
+        // Statements bypass the persistence context
+        repo.getEm().clear();
+        abc.put("gender", new Equals(M));
+        assertEquals(3, repo.count(abc, ClientDto.class));
+        Map<String, Filter> renamed = new HashMap<>();
+        renamed.put("name", new Equals("Referral"));
+        assertEquals(CLIENT_EMAIL, repo.getOne(renamed, ClientDto.class).getLogin());
+
+        System.out.println("Bulk update via JPA EntityManager OK");
+    }
+
+    @Test
+    public void testBulkDeleteForEMRepo() {
+        System.out.println("Testing bulk delete via JPA EntityManager");
+
+        // Filter by account state joins the root, so accounts are matched by primary keys selected with subquery
+        Map<String, Filter> rich = new HashMap<>();
+        rich.put("amount", new Equals(BigDecimal.valueOf(1_000_000)));
+        assertEquals(1, repo.deleteAll(rich, AccountDto.class));
+
+        // Statements bypass the persistence context
+        repo.getEm().clear();
+        assertEquals(2, repo.count(new HashMap<>(), AccountDto.class));
+        assertEquals(0, repo.count(rich, AccountDto.class));
+
+        System.out.println("Bulk delete via JPA EntityManager OK");
+    }
+
     @Test
     public void testCreateAndUpdateForSpringProcessor() {
         System.out.println("Testing create&update via Spring Processor");
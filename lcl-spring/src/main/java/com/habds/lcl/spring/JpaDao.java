@@ -1,14 +1,22 @@
 package com.habds.lcl.spring;
 
+import com.habds.lcl.core.data.ChunkMetrics;
+import com.habds.lcl.core.data.EntityManagerRepository;
+import com.habds.lcl.core.data.PagingAndSorting;
+import com.habds.lcl.core.data.Projection;
+import com.habds.lcl.core.data.Sheet;
 import com.habds.lcl.core.data.Specs;
 import com.habds.lcl.core.data.filter.Filter;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import javax.persistence.EntityManager;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.StreamSupport;
 
 import static java.util.stream.Collectors.toList;
@@ -18,7 +26,7 @@ import static java.util.stream.Collectors.toList;
  * using specified filters, sortings etc.
  *
  * @author Yurii Smyrnov
- * @version 1
+ * @version 4
  * @since 1/31/16 12:34 PM
  */
 @SuppressWarnings("unchecked")
@@ -27,6 +35,11 @@ public class JpaDao<ENTITY, DTO> {
     private SpringProcessor processor;
     private JpaSpecificationExecutor<ENTITY> delegate;
     private Class<DTO> dtoClass;
+    private boolean useProjection;
+    private boolean useFetchPlans;
+    private int chunkSize = 1000;
+    private Consumer<ChunkMetrics> chunkListener;
+    private boolean nullsFirst;
 
     JpaDao(SpringProcessor processor, JpaSpecificationExecutor<ENTITY> delegate, Class<DTO> dtoClass) {
         this.processor = processor;
@@ -34,9 +47,62 @@ public class JpaDao<ENTITY, DTO> {
         this.dtoClass = dtoClass;
     }
 
+    /**
+     * Enable or disable selecting pages of DTOs by projection query, without loading Entities.
+     * Applied only if DTO can be projected.
+     *
+     * @param useProjection true to use projection
+     * @return this object
+     * @see Projection
+     */
+    public JpaDao<ENTITY, DTO> useProjection(boolean useProjection) {
+        this.useProjection = useProjection;
+        return this;
+    }
+
+    /**
+     * Enable or disable fetching relations read by DTO's links together with the Entities, disabled by default
+     *
+     * @param useFetchPlans true to fetch relations, false to leave them lazy
+     * @return this object
+     * @see SpringProcessor#fetch(List, Class)
+     */
+    public JpaDao<ENTITY, DTO> useFetchPlans(boolean useFetchPlans) {
+        this.useFetchPlans = useFetchPlans;
+        return this;
+    }
+
+    /**
+     * @param chunkSize number of DTOs written by bulk operations between flushes
+     * @return this object
+     */
+    public JpaDao<ENTITY, DTO> chunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @param chunkListener listener receiving metrics of each chunk written by bulk operations, nullable
+     * @return this object
+     */
+    public JpaDao<ENTITY, DTO> chunkListener(Consumer<ChunkMetrics> chunkListener) {
+        this.chunkListener = chunkListener;
+        return this;
+    }
+
+    /**
+     * @param nullsFirst true if the database orders nulls before other values in ascending order
+     * @return this object
+     * @see EntityManagerRepository#setNullsFirst(boolean)
+     */
+    public JpaDao<ENTITY, DTO> nullsFirst(boolean nullsFirst) {
+        this.nullsFirst = nullsFirst;
+        return this;
+    }
+
     public List<DTO> findAll(Map<String, Filter> filters) {
         Specs<ENTITY> specs = processor.createSpecs(filters, dtoClass);
-        return processor.process(delegate.findAll(specs::buildPredicate), dtoClass);
+        return processor.process(fetch(delegate.findAll(specs::buildPredicate)), dtoClass);
     }
 
     public List<ENTITY> findAll(DTO filters) {
@@ -50,7 +116,8 @@ public class JpaDao<ENTITY, DTO> {
 
     public List<DTO> findAll(Map<String, Filter> filters, Sort sort) {
         Specs<ENTITY> specs = processor.createSpecs(filters, dtoClass);
-        return processor.process(delegate.findAll(specs::buildPredicate, convertToEntity(sort)), dtoClass);
+        List<ENTITY> entities = delegate.findAll(specs::buildPredicate, convertToEntity(sort));
+        return processor.process(fetch(entities), dtoClass);
     }
 
     public List<ENTITY> findAll(DTO filters, Sort sort) {
@@ -59,12 +126,70 @@ public class JpaDao<ENTITY, DTO> {
     }
 
     public Page<DTO> findAll(Map<String, Filter> filters, Pageable page) {
+        if (useProjection && processor.getEntityManager() != null && processor.getProjection(dtoClass) != null) {
+            Sheet<DTO> sheet = repository().getAll(filters, toPagingAndSorting(page), dtoClass);
+            return new PageImpl<>(sheet.getContent(), page, sheet.getTotalElements());
+        }
         Specs<ENTITY> specs = processor.createSpecs(filters, dtoClass);
-        Page<DTO> result = delegate
-            .findAll(specs::buildPredicate,
-                new PageRequest(page.getPageNumber(), page.getPageSize(), convertToEntity(page.getSort())))
-            .map(s -> processor.process(s, dtoClass));
-        return overwriteSort(result, page);
+        Page<ENTITY> entities = delegate.findAll(specs::buildPredicate,
+            new PageRequest(page.getPageNumber(), page.getPageSize(), convertToEntity(page.getSort())));
+        List<DTO> content = processor.process(fetch(entities.getContent()), dtoClass);
+        return new PageImpl<>(content, page, entities.getTotalElements());
+    }
+
+    /**
+     * Get page of DTOs selected by keyset instead of offset, total number of elements isn't counted
+     *
+     * @param filters filters map
+     * @param sort    sorting by DTO's properties, nullable; primary key is appended as the last sort key
+     * @param after   continuation token of the previous page ({@link Sheet#getNext()}), null for the first page
+     * @param size    page size
+     * @return page with continuation token of the next page
+     * @see PagingAndSorting#withKeyset(String, Integer)
+     */
+    public Sheet<DTO> findAll(Map<String, Filter> filters, Sort sort, String after, int size) {
+        return repository().getAll(filters, orderBy(new PagingAndSorting().withKeyset(after, size).withoutCount(),
+            sort), dtoClass);
+    }
+
+    /**
+     * Get slice of DTOs: page without total number of elements, one extra row is selected instead of count query
+     *
+     * @param filters filters map
+     * @param page    page settings, sorted by DTO's properties
+     * @return slice of DTOs
+     * @see EntityManagerRepository#getSlice(Map, PagingAndSorting, Class)
+     */
+    public Slice<DTO> findSlice(Map<String, Filter> filters, Pageable page) {
+        Sheet<DTO> slice = repository().getSlice(filters, toPagingAndSorting(page), dtoClass);
+        return new SliceImpl<>(slice.getContent(), page, slice.hasNext());
+    }
+
+    /**
+     * Get slice of Entities: page without total number of elements, one extra row is selected instead
+     * of count query
+     *
+     * @param filters filtering DTO
+     * @param page    page settings, sorted by DTO's properties
+     * @return slice of Entities
+     * @see EntityManagerRepository#getSlice(Object, PagingAndSorting)
+     */
+    public Slice<ENTITY> findSlice(DTO filters, Pageable page) {
+        Sheet<ENTITY> slice = repository().getSlice(filters, toPagingAndSorting(page));
+        return new SliceImpl<>(slice.getContent(), page, slice.hasNext());
+    }
+
+    private PagingAndSorting toPagingAndSorting(Pageable page) {
+        return orderBy(new PagingAndSorting(page.getPageNumber(), page.getPageSize()), page.getSort());
+    }
+
+    private static PagingAndSorting orderBy(PagingAndSorting paging, Sort sort) {
+        if (sort != null) {
+            for (Sort.Order order : sort) {
+                paging.orderBy(order.getProperty(), order.isAscending());
+            }
+        }
+        return paging;
     }
 
     public Page<ENTITY> findAll(DTO filters, Pageable page) {
@@ -97,7 +222,11 @@ public class JpaDao<ENTITY, DTO> {
 
     public DTO getOne(Map<String, Filter> filters) {
         Specs<ENTITY> specs = processor.createSpecs(filters, dtoClass);
-        return processor.process(delegate.findOne(specs::buildPredicate), dtoClass);
+        ENTITY entity = delegate.findOne(specs::buildPredicate);
+        if (entity != null) {
+            fetch(Collections.singletonList(entity));
+        }
+        return processor.process(entity, dtoClass);
     }
 
     public ENTITY getOne(DTO filters) {
@@ -114,12 +243,64 @@ public class JpaDao<ENTITY, DTO> {
         return delegate.count(processor.<ENTITY, DTO>createSpecs(filters)::buildPredicate);
     }
 
+    /**
+     * Check if any Entity matches filters, selecting at most one primary key if the entity manager is injected
+     *
+     * @param filters filters map
+     * @return true if there is at least one Entity
+     * @see EntityManagerRepository#exists(Map, Class)
+     */
     public boolean exists(Map<String, Filter> filters) {
-        return count(filters) > 0;
+        if (processor.getEntityManager() == null) {
+            return count(filters) > 0;
+        }
+        return repository().exists(filters, dtoClass);
     }
 
+    /**
+     * Check if any Entity matches filtering DTO, selecting at most one primary key if the entity manager is injected
+     *
+     * @param filters filtering DTO
+     * @return true if there is at least one Entity
+     * @see EntityManagerRepository#exists(Object)
+     */
     public boolean exists(DTO filters) {
-        return count(filters) > 0;
+        if (processor.getEntityManager() == null) {
+            return count(filters) > 0;
+        }
+        return repository().exists(filters);
+    }
+
+    /**
+     * Count distinct Entities matching filters, but no more than the limit. Selects at most {@code limit} primary
+     * keys if the entity manager is injected, otherwise all the distinct Entities are counted.
+     *
+     * @param filters filters map
+     * @param limit   maximum number to count
+     * @return number of Entities or the limit if there are more of them
+     * @see EntityManagerRepository#countUpTo(Map, Class, int)
+     */
+    public int countUpTo(Map<String, Filter> filters, int limit) {
+        if (processor.getEntityManager() == null) {
+            return (int) Math.min(countDistinct(processor.createSpecs(filters, dtoClass)), limit);
+        }
+        return repository().countUpTo(filters, dtoClass, limit);
+    }
+
+    /**
+     * Count distinct Entities matching filtering DTO, but no more than the limit. Selects at most {@code limit}
+     * primary keys if the entity manager is injected, otherwise all the distinct Entities are counted.
+     *
+     * @param filters filtering DTO
+     * @param limit   maximum number to count
+     * @return number of Entities or the limit if there are more of them
+     * @see EntityManagerRepository#countUpTo(Object, int)
+     */
+    public int countUpTo(DTO filters, int limit) {
+        if (processor.getEntityManager() == null) {
+            return (int) Math.min(countDistinct(processor.<ENTITY, DTO>createSpecs(filters)), limit);
+        }
+        return repository().countUpTo(filters, limit);
     }
 
     public ENTITY create(DTO dto) {
@@ -138,6 +319,110 @@ public class JpaDao<ENTITY, DTO> {
         return repo().save(create(dto, properties));
     }
 
+    /**
+     * Create Entities from DTOs and persist them in chunks, flushing and clearing the persistence context
+     * after each chunk. Must be called within transaction.
+     *
+     * @param dtos DTOs
+     * @return number of created Entities
+     * @see com.habds.lcl.core.data.EntityManagerRepository#createAll(Iterable)
+     */
+    public long createAll(Iterable<DTO> dtos) {
+        return repository().createAll(dtos);
+    }
+
+    /**
+     * Update Entities found by primary keys of DTOs in chunks, flushing and clearing the persistence context
+     * after each chunk. Must be called within transaction.
+     *
+     * @param dtos       DTOs
+     * @param primaryKey function extracting primary key of the Entity to update from DTO
+     * @return number of updated Entities, DTOs without corresponding Entity are skipped
+     * @see com.habds.lcl.core.data.EntityManagerRepository#updateAll(Iterable, Function)
+     */
+    public long updateAll(Iterable<DTO> dtos, Function<? super DTO, ? extends Serializable> primaryKey) {
+        return repository().updateAll(dtos, primaryKey);
+    }
+
+    /**
+     * Update all the Entities matching filters with single {@code UPDATE} statement, without loading them.
+     * Must be called within transaction.
+     *
+     * @param filters filters map
+     * @param values  new values: keys are names of DTO's properties
+     * @return number of updated Entities
+     * @see EntityManagerRepository#updateAll(Map, Class, Map)
+     */
+    public int updateAll(Map<String, Filter> filters, Map<String, ?> values) {
+        return repository().updateAll(filters, dtoClass, values);
+    }
+
+    /**
+     * Update all the Entities matching filtering DTO with single {@code UPDATE} statement, without loading them.
+     * Must be called within transaction.
+     *
+     * @param filters filtering DTO
+     * @param values  new values: keys are names of DTO's properties
+     * @return number of updated Entities
+     * @see EntityManagerRepository#updateAll(Map, Class, Map)
+     */
+    public int updateAll(DTO filters, Map<String, ?> values) {
+        return repository().updateAll(filters, values);
+    }
+
+    /**
+     * Delete all the Entities matching filters with single {@code DELETE} statement, without loading them.
+     * Must be called within transaction.
+     *
+     * @param filters filters map
+     * @return number of deleted Entities
+     * @see EntityManagerRepository#deleteAll(Map, Class)
+     */
+    public int deleteAll(Map<String, Filter> filters) {
+        return repository().deleteAll(filters, dtoClass);
+    }
+
+    /**
+     * Delete all the Entities matching filtering DTO with single {@code DELETE} statement, without loading them.
+     * Must be called within transaction.
+     *
+     * @param filters filtering DTO
+     * @return number of deleted Entities
+     * @see EntityManagerRepository#deleteAll(Map, Class)
+     */
+    public int deleteAll(DTO filters) {
+        return repository().deleteAll(filters);
+    }
+
+    private long countDistinct(Specs<ENTITY> specs) {
+        return delegate.count((root, query, cb) -> {
+            query.distinct(true);
+            return specs.buildPredicate(root, query, cb);
+        });
+    }
+
+    private List<ENTITY> fetch(List<ENTITY> entities) {
+        return useFetchPlans ? processor.fetch(entities, dtoClass) : entities;
+    }
+
+    private EntityManagerRepository repository() {
+        EntityManagerRepository repository = new EntityManagerRepository(processor, entityManager());
+        repository.setNullsFirst(nullsFirst);
+        repository.setUseProjections(useProjection);
+        repository.setUseFetchPlans(useFetchPlans);
+        repository.setChunkSize(chunkSize);
+        repository.setChunkListener(chunkListener);
+        return repository;
+    }
+
+    private EntityManager entityManager() {
+        EntityManager em = processor.getEntityManager();
+        if (em == null) {
+            throw new IllegalStateException("Entity manager isn't injected into the processor");
+        }
+        return em;
+    }
+
     public ENTITY update(ENTITY entity, DTO dto) {
         return processor.merge(entity, dto);
     }
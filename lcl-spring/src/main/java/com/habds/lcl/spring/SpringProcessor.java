@@ -1,7 +1,9 @@
 package com.habds.lcl.spring;
 
 import com.habds.lcl.core.annotation.ClassLink;
+import com.habds.lcl.core.data.FetchPlan;
 import com.habds.lcl.core.processor.LinkProcessor;
+import com.habds.lcl.core.processor.RelationBatch;
 import com.habds.lcl.core.processor.impl.SimpleLinkProcessor;
 import com.habds.lcl.core.processor.impl.SimpleProcessor;
 import com.habds.lcl.core.processor.impl.ext.JpaRelationSetterPostMapping;
@@ -12,13 +14,17 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.support.Repositories;
 
 import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnitUtil;
 import java.io.Serializable;
+import java.util.*;
 
 /**
  * Extension of the {@link SimpleProcessor}
  *
  * @author Yurii Smyrnov
- * @version 2
+ * @version 3
  * @since 1/31/16 1:53 PM
  */
 @SuppressWarnings("unchecked")
@@ -27,6 +33,9 @@ public class SpringProcessor extends SimpleProcessor {
     @Autowired
     private ApplicationContext context;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private Repositories repositories;
 
     public SpringProcessor() {
@@ -60,8 +69,35 @@ public class SpringProcessor extends SimpleProcessor {
         return dao(delegate, targetClass);
     }
 
+    /**
+     * Fetch relations read by DTO's links for already loaded Entities, so converting them into DTOs
+     * doesn't load the relations one by one
+     *
+     * @param entities Entities to be converted, managed by the current persistence context
+     * @param dtoClass DTO class
+     * @param <ENTITY> type of Entity
+     * @param <DTO>    type of DTO
+     * @return the same Entities
+     * @see FetchPlan#fetch(EntityManager, List)
+     */
+    public <ENTITY, DTO> List<ENTITY> fetch(List<ENTITY> entities, Class<DTO> dtoClass) {
+        if (entityManager != null && !entities.isEmpty()) {
+            FetchPlan<ENTITY> fetchPlan = getFetchPlan(dtoClass);
+            if (!fetchPlan.isEmpty()) {
+                fetchPlan.fetch(entityManager, entities);
+            }
+        }
+        return entities;
+    }
+
+    public EntityManager getEntityManager() {
+        return entityManager;
+    }
+
     public class SpringLinkProcessor extends SimpleLinkProcessor {
 
+        private boolean useReferences;
+
         @Override
         public void configure(SimpleProcessor processor) {
             super.configure(processor);
@@ -71,7 +107,49 @@ public class SpringProcessor extends SimpleProcessor {
                     return ((JpaRepository) repositories.getRepositoryFor(entityType))
                         .findOne((Serializable) primaryKey);
                 }
+
+                @Override
+                protected Map<Object, Object> getRelationValues(Class<?> entityType, String idProperty,
+                                                                Collection<Object> primaryKeys) {
+                    if (entityManager == null) {
+                        // Primary keys of found relations can't be read without persistence unit util
+                        return super.getRelationValues(entityType, idProperty, primaryKeys);
+                    }
+                    JpaRepository repository = (JpaRepository) repositories.getRepositoryFor(entityType);
+                    PersistenceUnitUtil util = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+                    List<Object> keys = new ArrayList<>(primaryKeys);
+                    Map<Object, Object> relations = new HashMap<>();
+                    for (int from = 0; from < keys.size(); from += RelationBatch.MAX_IN_SIZE) {
+                        int to = Math.min(from + RelationBatch.MAX_IN_SIZE, keys.size());
+                        relations.putAll(byPrimaryKey(util, repository.findAll((Iterable) keys.subList(from, to))));
+                    }
+                    return relations;
+                }
+
+                @Override
+                protected Object getRelationReference(Class<?> entityType, Object primaryKey) {
+                    return ((JpaRepository) repositories.getRepositoryFor(entityType))
+                        .getOne((Serializable) primaryKey);
+                }
+
+                @Override
+                protected boolean useReferences() {
+                    return useReferences;
+                }
             });
         }
+
+        public boolean isUseReferences() {
+            return useReferences;
+        }
+
+        /**
+         * @param useReferences true to set relations of all the DTO fields by {@link JpaRepository#getOne},
+         *                      false (default) to do it only for fields annotated with
+         *                      {@link com.habds.lcl.core.annotation.Reference}
+         */
+        public void setUseReferences(boolean useReferences) {
+            this.useReferences = useReferences;
+        }
     }
 }